@@ -3,157 +3,137 @@ package com.example.myquarto;
 /**
  * Utilizziamo questa classe solo nel caso in cui sia attivato il ChessClock
  * All'interno del gioco di Quarto! possiamo usare la stessa logica dell'orologio nel gioco degli scacchi
+ *
+ * Il tempo è contato da GameClock con SystemClock.elapsedRealtimeNanos (monotono, continua anche con lo schermo
+ * spento), al millisecondo. Il Runnable sul thread principale serve solo a ridisegnare il display: viene
+ * rischedulato per l'istante in cui cambia il tempo mostrato (che per l'ultimo decimo è lo scadere del tempo)
+ * e ricalcola tutto da GameClock, quindi un ritardo del looper non si accumula né sposta tempo tra i giocatori.
+ * Sotto i 10 secondi il display mostra i decimi (ClockFormat) e il Runnable passa a 10 aggiornamenti al secondo.
+ * Al listener arrivano solo millisecondi: nessuna String viene creata a ogni aggiornamento.
  */
 
 /**
  * I metodi presenti in questa classe sono:
- * resetInternalStateAndNotify()
  * start()
  * stop()
  * reset()
  * switchTurn()
- * formatTime(int TotalSeconds)
+ * restore(long player1Millis, long player2Millis, boolean player1Turn)
+ * refresh()
+ * notifyTime(long nowNanos)
  * isRunning()
+ * getRemainingMillis(int player)
  */
 
-import android.os.CountDownTimer;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 
 public class ChessClock {
     public interface ChessClockListener {
-        void onTimeUpdated(String player1TimeFormatted, String player2TimeFormatted,
-                           int player1TimeSeconds, int player2TimeSeconds, boolean isPlayer1Active);
+        void onTimeUpdated(long player1Millis, long player2Millis, boolean isPlayer1Active);
 
         void onPlayerTimeout(int playerNumber);
     }
 
-    private int player1TimeSeconds;
-    private int player2TimeSeconds;
-    private boolean isPlayer1Turn;
-    private CountDownTimer timer;
+    private final GameClock clock;
     private final ChessClockListener listener;
-    private final int initialTimeSecondsPerPlayer;
-    private boolean isRunning = false;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable refreshRunnable = this::refresh;
 
     // Constructor
     public ChessClock(int initialMinutesPerPlayer, ChessClockListener listener) {
+        this(initialMinutesPerPlayer * 60_000L, 0, GameClock.Increment.NONE, listener);
+    }
+
+    public ChessClock(long initialMillisPerPlayer, long incrementMillis, GameClock.Increment incrementMode,
+                      ChessClockListener listener) {
         if (listener == null) {
             throw new IllegalArgumentException("ChessClockListener non può essere null.");
         }
-        this.initialTimeSecondsPerPlayer = initialMinutesPerPlayer * 60;
+        this.clock = new GameClock(initialMillisPerPlayer, incrementMillis, incrementMode);
         this.listener = listener;
-        this.isPlayer1Turn = true; // Giocatore 1 inizia per default
-        resetInternalStateAndNotify();
-    }
-
-    private void resetInternalStateAndNotify() {
-        this.player1TimeSeconds = this.initialTimeSecondsPerPlayer;
-        this.player2TimeSeconds = this.initialTimeSecondsPerPlayer;
-        // Notifica lo stato iniziale/resettato al listener
-        listener.onTimeUpdated(
-                formatTime(this.player1TimeSeconds),
-                formatTime(this.player2TimeSeconds),
-                this.player1TimeSeconds,
-                this.player2TimeSeconds,
-                this.isPlayer1Turn
-        );
+        notifyTime(SystemClock.elapsedRealtimeNanos()); // Notifica lo stato iniziale al listener
     }
 
     public void start() {
-        if (isRunning) {
+        if (clock.isRunning()) {
             return;
         }
-        isRunning = true;
-
-        timer = new CountDownTimer(Integer.MAX_VALUE, 1000) { // Tick ogni secondo
-            @Override
-            public void onTick(long millisUntilFinished) {
-                if (!isRunning) { // Controllo di sicurezza, se stop() è stato chiamato nel frattempo
-                    cancel();
-                    return;
-                }
-
-                if (isPlayer1Turn) {
-                    player1TimeSeconds--;
-                } else {
-                    player2TimeSeconds--;
-                }
-
-                listener.onTimeUpdated(
-                        formatTime(player1TimeSeconds),
-                        formatTime(player2TimeSeconds),
-                        player1TimeSeconds,
-                        player2TimeSeconds,
-                        isPlayer1Turn
-                );
-
-                // Controllo timeout
-                if ((isPlayer1Turn && player1TimeSeconds <= 0) ||
-                        (!isPlayer1Turn && player2TimeSeconds <= 0)) {
-                    // Assicura che il tempo non vada sotto zero nella notifica finale
-                    if (player1TimeSeconds < 0) player1TimeSeconds = 0;
-                    if (player2TimeSeconds < 0) player2TimeSeconds = 0;
-
-                    stop(); // Ferma il timer e setta isRunning = false
-                    listener.onPlayerTimeout(isPlayer1Turn ? 1 : 2);
-                }
-            }
-
-            @Override
-            public void onFinish() {
-                if (isRunning) {
-                    stop();
-                    listener.onPlayerTimeout(isPlayer1Turn ? 1 : 2);
-                }
-            }
-        }.start();
+        clock.start(SystemClock.elapsedRealtimeNanos());
+        refresh();
     }
 
     public void stop() {
-        if (!isRunning && timer == null) {
-            return;
-        }
-        isRunning = false;
-        if (timer != null) {
-            timer.cancel();
-            timer = null;
-        }
+        handler.removeCallbacks(refreshRunnable);
+        clock.stop(SystemClock.elapsedRealtimeNanos());
     }
 
     public void reset() {
         stop();
-        this.isPlayer1Turn = true; // Giocatore 1 inizia dopo un reset
-        resetInternalStateAndNotify();
+        clock.reset(); // Giocatore 1 inizia dopo un reset
+        notifyTime(SystemClock.elapsedRealtimeNanos());
     }
 
-    public void switchTurn() {
-        isPlayer1Turn = !isPlayer1Turn;
-        listener.onTimeUpdated(
-                formatTime(player1TimeSeconds),
-                formatTime(player2TimeSeconds),
-                player1TimeSeconds,
-                player2TimeSeconds,
-                isPlayer1Turn
-        );
+    // Ripristina i tempi di una partita salvata (l'orologio resta fermo fino a start())
+    public void restore(long player1Millis, long player2Millis, boolean player1Turn) {
+        stop();
+        clock.restore(player1Millis, player2Millis, player1Turn);
+        notifyTime(SystemClock.elapsedRealtimeNanos());
+    }
+
+    // Passa il turno all'avversario; false se il giocatore attivo aveva già finito il tempo
+    // (in quel caso la sconfitta per tempo viene notificata qui, anche se il Runnable non è ancora partito)
+    public boolean switchTurn() {
+        if (!clock.switchTurn(SystemClock.elapsedRealtimeNanos())) {
+            refresh();
+            return false;
+        }
+        if (clock.isRunning()) {
+            handler.removeCallbacks(refreshRunnable);
+            refresh();
+        } else {
+            notifyTime(SystemClock.elapsedRealtimeNanos());
+        }
+        return true;
     }
-    private String formatTime(int totalSeconds) {
-        if (totalSeconds < 0) {
-            totalSeconds = 0; // Evita visualizzazione di tempo negativo
+
+    // Aggiorna il display e, se il tempo non è finito, si rischedula per il prossimo cambio del testo mostrato
+    private void refresh() {
+        if (!clock.isRunning()) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtimeNanos();
+        notifyTime(now);
+        if (clock.isExpired(now)) {
+            int player = clock.isPlayer1Turn() ? 1 : 2;
+            stop();
+            listener.onPlayerTimeout(player);
+            return;
         }
-        int minutes = totalSeconds / 60;
-        int seconds = totalSeconds % 60;
-        return String.format("%02d:%02d", minutes, seconds);
+        long remaining = Math.max(1, clock.getRemainingMillis(clock.isPlayer1Turn() ? 1 : 2, now));
+        // +1 ms: i millisecondi sono arrotondati per difetto, così si arriva appena dopo il cambio, mai appena prima
+        handler.postDelayed(refreshRunnable, ClockFormat.millisUntilChange(remaining) + 1);
     }
-    public boolean isRunning() {
-        return isRunning;
+
+    private void notifyTime(long nowNanos) {
+        listener.onTimeUpdated(
+                clock.getRemainingMillis(1, nowNanos),
+                clock.getRemainingMillis(2, nowNanos),
+                clock.isPlayer1Turn()
+        );
     }
 
-    // metodi getter anche se non vengono utilizzati
+    public boolean isRunning() {
+        return clock.isRunning();
+    }
 
-    public int getPlayer1TimeSeconds() {
-        return player1TimeSeconds;
+    // Tempo rimasto al giocatore in questo istante, al millisecondo
+    public long getRemainingMillis(int player) {
+        return clock.getRemainingMillis(player, SystemClock.elapsedRealtimeNanos());
     }
 
-    public int getPlayer2TimeSeconds() {
-        return player2TimeSeconds;
+    public boolean isPlayer1Turn() {
+        return clock.isPlayer1Turn();
     }
-}
\ No newline at end of file
+}
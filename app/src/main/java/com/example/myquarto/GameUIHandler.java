@@ -1,5 +1,6 @@
 package com.example.myquarto;
 
+import android.graphics.drawable.Drawable;
 import android.view.Gravity;
 import android.view.View;
 import android.view.Window;
@@ -13,6 +14,8 @@ import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.core.content.ContextCompat;
 
+import com.example.myquarto.ai.QuartoAI;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -26,19 +29,26 @@ import java.util.Locale;
  * I metodi presenti in questa classe sono:
  * GameUIHandler(@NonNull MainActivity activity)
  * findViews()
- * setupListeners(View.OnClickListener abortListener, QuartoButtonClickListener quartoListener)
+ * setupListeners(View.OnClickListener abortListener, View.OnClickListener hintListener, QuartoButtonClickListener quartoListener)
  * setupBoardImageViews(BoardCellClickListener listener)
- * setupAvailablePieceImageViews(List<Piece> availablePieces, AvailablePieceClickListener listener)
- * formatTime(int TotalSeconds)
- * updateClock(String p1Time, String p2Time, boolean isP1Active)
+ * setupAvailablePieceImageViews(Board board, AvailablePieceClickListener listener)
+ * findAvailablePieceView(Piece piece)
+ * updateClock(long p1Millis, long p2Millis, boolean isP1Active)
+ * drawClock(TextView clockView, char[] buffer, long millis)
  * updateGameStateDisplay(int currentPlayer, boolean isSelectingPiecePhase)
+ * updateGameStateDisplay(int currentPlayer, boolean isSelectingPiecePhase, int computerPlayer)
  * setPieceOnBoard(int row, int col, Piece piece)
  * clearPlayerPieceSlot(int player)
  * highlightWinningCells(VictoryCheck.VictoryResult result)
+ * setHintButtonActive(boolean active)
+ * showHints(int[] scores, boolean squares)
+ * clearHints()
+ * applyHint(ImageView imageView, int score)
  * showGameEndDialog(String message, GameDialogListener listener)
  * showNoQuartoDialog()
- * resetUI(List<Piece> initialPieces, AvailablePieceClickListener listener)
- * getDrawableIdForPiece(Piece piece)
+ * resetUI(Board board, AvailablePieceClickListener listener)
+ * restoreGameViews(Board board)
+ * setPieceImage(ImageView imageView, Piece piece)
  * String formatWinPosition(VictoryCheck.VictoryResult result)
  */
 public class GameUIHandler {
@@ -72,6 +82,7 @@ public class GameUIHandler {
     private TextView textViewPlayer1Status, textViewPlayer2Status;
     private ImageView imageViewPlayer1PieceSlot, imageViewPlayer2PieceSlot;
     private Button buttonPlayer1Quarto, buttonPlayer2Quarto;
+    private Button buttonHint;
     private GridLayout gridLayoutBoard;
     private GridLayout gridLayoutAvailablePieces;
     private final ImageView[][] boardImageViews = new ImageView[4][4];
@@ -80,6 +91,28 @@ public class GameUIHandler {
     private final int EMPTY_CELL_DRAWABLE_ID = R.drawable.cell_empty;
     private final int EMPTY_PIECE_SLOT_DRAWABLE_ID = R.drawable.piece_slot_empty;
     private final int WIN_CELL_DRAWABLE_ID = R.drawable.win_cell;
+
+    // Immagini dei pezzi indicizzate per codice (bit 0 larghezza, 1 forma, 2 colore, 3 tipo, come Piece.getCode()):
+    // gli ID sono costanti di R, senza cercarli per nome con getIdentifier a ogni disegno
+    private static final int[] PIECE_DRAWABLE_IDS = {
+            R.drawable.lqcp, R.drawable.sqcp, R.drawable.lrcp, R.drawable.srcp,
+            R.drawable.lqsp, R.drawable.sqsp, R.drawable.lrsp, R.drawable.srsp,
+            R.drawable.lqcv, R.drawable.sqcv, R.drawable.lrcv, R.drawable.srcv,
+            R.drawable.lqsv, R.drawable.sqsv, R.drawable.lrsv, R.drawable.srsv
+    };
+    // Le bitmap vengono decodificate una volta sola: ogni ImageView riceve un Drawable che le condivide
+    private final Drawable.ConstantState[] pieceDrawables = new Drawable.ConstantState[PIECE_DRAWABLE_IDS.length];
+    // Testo degli orologi scritto in buffer riusati (ClockFormat); si ridisegna solo ciò che cambia
+    private final char[] player1ClockChars = new char[ClockFormat.MAX_CHARS];
+    private final char[] player2ClockChars = new char[ClockFormat.MAX_CHARS];
+    private long player1ClockKey = -1;
+    private long player2ClockKey = -1;
+    private int activeClockPlayer; // 0 = colori non ancora impostati
+    private final int activeClockColor;
+    private final int inactiveClockColor;
+    private final int hintWinColor;
+    private final int hintLossColor;
+    private final int hintDrawColor;
     private final int largoPiecePxSize;
     private final int strettoPiecePxSize;
     private final int pieceMarginPx;
@@ -93,6 +126,16 @@ public class GameUIHandler {
         strettoPiecePxSize = activity.getResources().getDimensionPixelSize(R.dimen.piece_stretto_size);
         pieceMarginPx = activity.getResources().getDimensionPixelSize(R.dimen.piece_image_margin);
         boardPxSize = activity.getResources().getDimensionPixelSize(R.dimen.piece_board_size);
+        activeClockColor = ContextCompat.getColor(activity, R.color.active_clock_color);
+        inactiveClockColor = ContextCompat.getColor(activity, R.color.inactive_clock_color);
+        hintWinColor = ContextCompat.getColor(activity, R.color.hint_win_color);
+        hintLossColor = ContextCompat.getColor(activity, R.color.hint_loss_color);
+        hintDrawColor = ContextCompat.getColor(activity, R.color.hint_draw_color);
+
+        for (int code = 0; code < PIECE_DRAWABLE_IDS.length; code++) {
+            Drawable drawable = ContextCompat.getDrawable(activity, PIECE_DRAWABLE_IDS[code]);
+            pieceDrawables[code] = drawable == null ? null : drawable.getConstantState();
+        }
 
         findViews();
     }
@@ -105,13 +148,16 @@ public class GameUIHandler {
         imageViewPlayer1PieceSlot = activity.findViewById(R.id.imageview_player1_piece_slot);
         imageViewPlayer2PieceSlot = activity.findViewById(R.id.imageview_player2_piece_slot);
         buttonPlayer1Quarto = activity.findViewById(R.id.button_player1_quarto);
+        buttonHint = activity.findViewById(R.id.button_hint);
         buttonPlayer2Quarto = activity.findViewById(R.id.button_player2_quarto);
         gridLayoutBoard = activity.findViewById(R.id.gridlayout_board);
         gridLayoutAvailablePieces = activity.findViewById(R.id.gridlayout_available_pieces);
     }
 
-    public void setupListeners(View.OnClickListener abortListener, QuartoButtonClickListener quartoListener) {
+    public void setupListeners(View.OnClickListener abortListener, View.OnClickListener hintListener,
+                               QuartoButtonClickListener quartoListener) {
         activity.findViewById(R.id.button_abort_game).setOnClickListener(abortListener);
+        buttonHint.setOnClickListener(hintListener);
         buttonPlayer1Quarto.setOnClickListener(v -> quartoListener.onQuartoClick(1));
         buttonPlayer2Quarto.setOnClickListener(v -> quartoListener.onQuartoClick(2));
     }
@@ -146,11 +192,13 @@ public class GameUIHandler {
         }
     }
 
-    public void setupAvailablePieceImageViews(List<Piece> availablePieces, AvailablePieceClickListener listener) {
+    // I 16 pezzi nell'ordine mescolato della board (quelli già usati vengono oscurati da restoreGameViews)
+    public void setupAvailablePieceImageViews(Board board, AvailablePieceClickListener listener) {
         if (gridLayoutAvailablePieces == null) return;
         gridLayoutAvailablePieces.removeAllViews();
 
-        for (Piece piece : availablePieces) {
+        for (int i = 0; i < Piece.COUNT; i++) {
+            Piece piece = board.getPieceInDisplayOrder(i);
             ImageView imageView = new ImageView(activity);
             int pieceSize = (piece.getLarghezza() == Piece.Larghezza.STRETTO) ? strettoPiecePxSize : largoPiecePxSize;
 
@@ -162,23 +210,60 @@ public class GameUIHandler {
             params.setGravity(Gravity.CENTER);
             imageView.setLayoutParams(params);
 
-            imageView.setImageResource(getDrawableIdForPiece(piece));
+            setPieceImage(imageView, piece);
             imageView.setScaleType(ImageView.ScaleType.FIT_CENTER);
+            imageView.setTag(piece);
             imageView.setOnClickListener(v -> listener.onPieceClick(piece, (ImageView) v));
             gridLayoutAvailablePieces.addView(imageView);
         }
     }
 
-    public void updateClock(String p1Time, String p2Time, boolean isP1Active) {
-        textViewPlayer1Clock.setText(p1Time);
-        textViewPlayer2Clock.setText(p2Time);
-        textViewPlayer1Clock.setTextColor(ContextCompat.getColor(activity, isP1Active ? R.color.active_clock_color : R.color.inactive_clock_color));
-        textViewPlayer2Clock.setTextColor(ContextCompat.getColor(activity, !isP1Active ? R.color.active_clock_color : R.color.inactive_clock_color));
+    // ImageView del pezzo nella lista dei disponibili (serve quando il pezzo lo sceglie il computer)
+    public ImageView findAvailablePieceView(Piece piece) {
+        for (int i = 0; i < gridLayoutAvailablePieces.getChildCount(); i++) {
+            View child = gridLayoutAvailablePieces.getChildAt(i);
+            if (child.getTag() == piece) return (ImageView) child;
+        }
+        return null;
+    }
+
+    // Chiamato anche 10 volte al secondo: nessuna allocazione, e le TextView vengono toccate solo se il testo
+    // o il giocatore attivo sono cambiati (di solito cambia solo l'orologio di chi sta giocando)
+    public void updateClock(long p1Millis, long p2Millis, boolean isP1Active) {
+        long p1Key = ClockFormat.displayKey(p1Millis);
+        if (p1Key != player1ClockKey) {
+            player1ClockKey = p1Key;
+            drawClock(textViewPlayer1Clock, player1ClockChars, p1Millis);
+        }
+        long p2Key = ClockFormat.displayKey(p2Millis);
+        if (p2Key != player2ClockKey) {
+            player2ClockKey = p2Key;
+            drawClock(textViewPlayer2Clock, player2ClockChars, p2Millis);
+        }
+        int activePlayer = isP1Active ? 1 : 2;
+        if (activePlayer != activeClockPlayer) {
+            activeClockPlayer = activePlayer;
+            textViewPlayer1Clock.setTextColor(isP1Active ? activeClockColor : inactiveClockColor);
+            textViewPlayer2Clock.setTextColor(!isP1Active ? activeClockColor : inactiveClockColor);
+        }
+    }
+
+    // setText(char[], ...) non copia il testo in una String: il buffer deve restare dedicato a questa TextView
+    private void drawClock(TextView clockView, char[] buffer, long millis) {
+        clockView.setText(buffer, 0, ClockFormat.format(millis, buffer));
     }
 
     public void updateGameStateDisplay(int currentPlayer, boolean isSelectingPiecePhase) {
+        updateGameStateDisplay(currentPlayer, isSelectingPiecePhase, 0);
+    }
+
+    // computerPlayer: il giocatore controllato dal computer (0 = nessuno), il suo pulsante QUARTO! resta disabilitato
+    public void updateGameStateDisplay(int currentPlayer, boolean isSelectingPiecePhase, int computerPlayer) {
         String statusP1, statusP2;
-        if (isSelectingPiecePhase) {
+        if (currentPlayer == computerPlayer) {
+            statusP1 = (currentPlayer == 1) ? activity.getString(R.string.status_computer_thinking) : activity.getString(R.string.status_waiting_opponent);
+            statusP2 = (currentPlayer == 2) ? activity.getString(R.string.status_computer_thinking) : activity.getString(R.string.status_waiting_opponent);
+        } else if (isSelectingPiecePhase) {
             statusP1 = (currentPlayer == 1) ? activity.getString(R.string.status_select_piece_for_opponent) : activity.getString(R.string.status_waiting_opponent);
             statusP2 = (currentPlayer == 2) ? activity.getString(R.string.status_select_piece_for_opponent) : activity.getString(R.string.status_waiting_opponent);
         } else {
@@ -187,14 +272,14 @@ public class GameUIHandler {
         }
         textViewPlayer1Status.setText(statusP1);
         textViewPlayer2Status.setText(statusP2);
-        buttonPlayer1Quarto.setEnabled(currentPlayer == 1);
-        buttonPlayer2Quarto.setEnabled(currentPlayer == 2);
+        buttonPlayer1Quarto.setEnabled(currentPlayer == 1 && computerPlayer != 1);
+        buttonPlayer2Quarto.setEnabled(currentPlayer == 2 && computerPlayer != 2);
     }
 
     public void setPieceOnBoard(int row, int col, Piece piece) {
         ImageView cellImageView = boardImageViews[row][col];
         cellImageView.setBackgroundResource(EMPTY_CELL_DRAWABLE_ID);
-        cellImageView.setImageResource(getDrawableIdForPiece(piece));
+        setPieceImage(cellImageView, piece);
         cellImageView.setEnabled(false);
 
         int padding = (piece.getLarghezza() == Piece.Larghezza.STRETTO) ? (largoPiecePxSize - strettoPiecePxSize) / 2 : 0;
@@ -203,7 +288,7 @@ public class GameUIHandler {
 
     public void setPlayerPieceSlot(int player, Piece piece) {
         ImageView targetSlot = (player == 1) ? imageViewPlayer1PieceSlot : imageViewPlayer2PieceSlot;
-        targetSlot.setImageResource(getDrawableIdForPiece(piece));
+        setPieceImage(targetSlot, piece);
 
         if (piece != null) {
             int padding = (piece.getLarghezza() == Piece.Larghezza.STRETTO) ? (largoPiecePxSize - strettoPiecePxSize) / 2 : 0;
@@ -216,6 +301,51 @@ public class GameUIHandler {
         targetSlot.setImageResource(EMPTY_PIECE_SLOT_DRAWABLE_ID);
     }
 
+    //region Suggerimenti
+    public void setHintButtonActive(boolean active) {
+        buttonHint.setText(active ? R.string.button_hints_on : R.string.button_hints_off);
+    }
+
+    // Colora ogni casella (squares = true) o pezzo disponibile secondo il punteggio dell'analisi per il giocatore di turno:
+    // verde vittoria, rosso sconfitta, giallo patta o esito non ancora deciso
+    public void showHints(int[] scores, boolean squares) {
+        for (int r = 0; r < 4; r++) {
+            for (int c = 0; c < 4; c++) {
+                applyHint(boardImageViews[r][c], squares ? scores[r * 4 + c] : QuartoAI.NO_SCORE);
+            }
+        }
+        for (int i = 0; i < gridLayoutAvailablePieces.getChildCount(); i++) {
+            View child = gridLayoutAvailablePieces.getChildAt(i);
+            Piece piece = (Piece) child.getTag();
+            applyHint((ImageView) child, squares || piece == null ? QuartoAI.NO_SCORE : scores[piece.getCode()]);
+        }
+    }
+
+    public void clearHints() {
+        for (int r = 0; r < 4; r++) {
+            for (int c = 0; c < 4; c++) {
+                if (boardImageViews[r][c] != null) boardImageViews[r][c].clearColorFilter();
+            }
+        }
+        for (int i = 0; i < gridLayoutAvailablePieces.getChildCount(); i++) {
+            ((ImageView) gridLayoutAvailablePieces.getChildAt(i)).clearColorFilter();
+        }
+    }
+
+    private void applyHint(ImageView imageView, int score) {
+        if (imageView == null) return;
+        if (score == QuartoAI.NO_SCORE) {
+            imageView.clearColorFilter();
+        } else if (score > QuartoAI.WIN_SCORE - 100) {
+            imageView.setColorFilter(hintWinColor);
+        } else if (score < -(QuartoAI.WIN_SCORE - 100)) {
+            imageView.setColorFilter(hintLossColor);
+        } else {
+            imageView.setColorFilter(hintDrawColor);
+        }
+    }
+    //endregion
+
     public void highlightWinningCells(VictoryCheck.VictoryResult result) {
         List<ImageView> cellsToHighlight = new ArrayList<>();
         int r, c;
@@ -288,7 +418,7 @@ public class GameUIHandler {
                 .show();
     }
 
-    public void resetUI(List<Piece> initialPieces, AvailablePieceClickListener listener) {
+    public void resetUI(Board board, AvailablePieceClickListener listener) {
         for (int r = 0; r < 4; r++) {
             for (int c = 0; c < 4; c++) {
                 boardImageViews[r][c].setImageResource(EMPTY_CELL_DRAWABLE_ID);
@@ -299,14 +429,43 @@ public class GameUIHandler {
         }
         clearPlayerPieceSlot(1);
         clearPlayerPieceSlot(2);
-        setupAvailablePieceImageViews(initialPieces, listener);
+        setupAvailablePieceImageViews(board, listener);
+    }
+
+    // Partita ripristinata: aggiorna solo le caselle occupate, i pezzi già usati e i pezzi in mano
+    // (le ImageView sono appena state create da setupBoardImageViews e setupAvailablePieceImageViews)
+    public void restoreGameViews(Board board) {
+        int availableMask = board.getAvailableMask();
+        int occupied = board.getBitBoard().getOccupied();
+        for (int squares = occupied; squares != 0; squares &= squares - 1) {
+            int square = Integer.numberOfTrailingZeros(squares);
+            setPieceOnBoard(square / 4, square % 4, board.getPiece(square / 4, square % 4));
+        }
+        for (int i = 0; i < gridLayoutAvailablePieces.getChildCount(); i++) {
+            View child = gridLayoutAvailablePieces.getChildAt(i);
+            Piece piece = (Piece) child.getTag();
+            if ((availableMask & (1 << piece.getCode())) == 0) {
+                child.setEnabled(false);
+                child.setAlpha(0.2f);
+            }
+        }
+        for (int player = 1; player <= 2; player++) {
+            Piece inHand = board.getPlayerPiece(player);
+            if (inHand != null) setPlayerPieceSlot(player, inHand);
+        }
     }
 
-    private int getDrawableIdForPiece(Piece piece) {
-        if (piece == null) return EMPTY_CELL_DRAWABLE_ID;
-        String drawableName = piece.toShortString().toLowerCase();
-        int resId = activity.getResources().getIdentifier(drawableName, "drawable", activity.getPackageName());
-        return resId == 0 ? EMPTY_CELL_DRAWABLE_ID : resId;
+    private void setPieceImage(ImageView imageView, Piece piece) {
+        if (piece == null) {
+            imageView.setImageResource(EMPTY_CELL_DRAWABLE_ID);
+            return;
+        }
+        Drawable.ConstantState state = pieceDrawables[piece.getCode()];
+        if (state != null) {
+            imageView.setImageDrawable(state.newDrawable(activity.getResources()));
+        } else {
+            imageView.setImageResource(PIECE_DRAWABLE_IDS[piece.getCode()]);
+        }
     }
 
     public String formatWinPosition(VictoryCheck.VictoryResult result) {
@@ -1,18 +1,30 @@
 package com.example.myquarto;
 
+import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.PowerManager;
 import android.util.Log;
 import android.widget.ImageView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
-
-import java.util.ArrayList;
-import java.util.List;
+import androidx.core.content.ContextCompat;
+
+import com.example.myquarto.ai.EngineExecutor;
+import com.example.myquarto.ai.LookupEngine;
+import com.example.myquarto.ai.MonteCarloAI;
+import com.example.myquarto.ai.OpeningBook;
+import com.example.myquarto.ai.Ponderer;
+import com.example.myquarto.ai.QuartoAI;
+import com.example.myquarto.ai.QuartoEngine;
+
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Gestisce la logica di gioco, lo stato della partita e orchestra le interazioni
@@ -22,6 +34,7 @@ import java.util.Locale;
 /**
  * I metodi presenti in questa classe sono:
  * startGame()
+ * saveGame(), restoreGame(GameSnapshot snapshot)
  * handleSelectPieceForOpponent(Piece piece, ImageView pieceImageViewFromList)
  * handlePlacePiece(int row, int col)
  * handleQuartoButtonClick(int callingPlayer)
@@ -29,7 +42,17 @@ import java.util.Locale;
  * resetGame()
  * handleAbortGame()
  * isBoardFull()
- * onTimeUpdated(String p1Time, String p2Time, int p1Sec, int p2Sec, boolean isP1Active)
+ * scheduleDrawCheck()
+ * startComputerTurnIfNeeded()
+ * computerBudgetMillis(int emptySquares)
+ * applyComputerMove(QuartoAI.Move move)
+ * onComputerSearchFailed(Exception e)
+ * cancelComputerTurn()
+ * startPonderingIfNeeded(), onPonderFinished(Ponderer session), onPonderFailed(Ponderer session, Exception e), stopPondering()
+ * isPowerSaveMode()
+ * toggleHints(), startAnalysisIfNeeded(), stopAnalysis()
+ * loadOpeningBook()
+ * onTimeUpdated(long p1Millis, long p2Millis, boolean isP1Active)
  * onPlayerTimeout(int playerNumber)
  * onPlayAgain()
  * onQuit()
@@ -41,23 +64,50 @@ public class MainActivity extends AppCompatActivity implements ChessClock.ChessC
     private Board board;
     private VictoryCheck victoryCheck;
     private ChessClock chessClock;
-    private List<Piece> currentAvailablePiecesList;
 
-    private int currentPlayer = 1;
-    private boolean isSelectingPiecePhase = true;
-    private boolean isWaitingForQuartoCallAfter16th = false;
+    private final TurnState turn = new TurnState();
 
     // Gestori
     private GameUIHandler uiHandler;
     private final Handler drawCheckHandler = new Handler(Looper.getMainLooper());
     private Runnable drawCheckRunnable;
 
+    // Stato salvato quando Android ricrea l'activity (rotazione, processo terminato)
+    private static final String STATE_GAME = "com.example.myquarto.GAME_SNAPSHOT";
+
+    // Avversario computer (computerPlayer = 0: partita tra due giocatori umani)
+    // Le ricerche girano su EngineExecutor, la mossa viene applicata sul thread della UI
+    private static final long COMPUTER_MAX_THINK_MILLIS = 150;
+    private static final String OPENING_BOOK_ASSET = "opening_book.qob";
+    private int computerPlayer = 0;
+    private QuartoEngine computer; // QuartoAI (alpha-beta) o MonteCarloAI, scelto nelle impostazioni, preceduto dal libro delle aperture
+    private static final int ENGINE_THREADS = 2;
+    private static final int ENGINE_QUEUE_CAPACITY = 4;
+    private EngineExecutor engineExecutor;
+    private EngineExecutor.Task<QuartoAI.Move> computerTask;
+    // Se la coda delle ricerche è piena la mossa del computer viene richiesta di nuovo poco dopo
+    private static final long COMPUTER_RETRY_MILLIS = 50;
+    private final Handler computerRetryHandler = new Handler(Looper.getMainLooper());
+    private final Runnable computerRetryRunnable = this::startComputerTurnIfNeeded;
+    // Mentre tocca all'umano il computer prepara le risposte (Ponderer), con lo stesso motore e la stessa tabella
+    private static final long PONDER_PREDICT_MILLIS = 100;
+    private Ponderer ponderer;
+    private EngineExecutor.Task<Ponderer> ponderTask;
+
+    // Suggerimenti per i giocatori umani: il punteggio di ogni mossa, aggiornato una profondità alla volta.
+    // L'analisi usa un motore suo, così non tocca la tabella né la ricerca del computer
+    private static final long HINT_MAX_MILLIS = 5000;
+    private boolean hintsEnabled;
+    private QuartoAI hintEngine;
+    private EngineExecutor.Task<int[]> hintTask;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
         uiHandler = new GameUIHandler(this);
+        engineExecutor = new EngineExecutor(ENGINE_THREADS, ENGINE_QUEUE_CAPACITY, ContextCompat.getMainExecutor(this));
 
         boolean timerEnabledSetting;
         int timerMinutesSetting;
@@ -72,38 +122,135 @@ public class MainActivity extends AppCompatActivity implements ChessClock.ChessC
         }
 
         board = new Board();
-        currentAvailablePiecesList = new ArrayList<>(board.getAvailablePieces());
         victoryCheck = new VictoryCheck(board,
                 winPreferencesSetting[0], winPreferencesSetting[1], winPreferencesSetting[2],
                 winPreferencesSetting[3], winPreferencesSetting[4], winPreferencesSetting[5]);
 
+        if (intent.getBooleanExtra(StartupActivity.EXTRA_VS_COMPUTER, false)) {
+            computerPlayer = 2; // il giocatore 1 (umano) sceglie sempre il primo pezzo
+            QuartoEngine engine = intent.getBooleanExtra(StartupActivity.EXTRA_COMPUTER_MCTS, false)
+                    ? new MonteCarloAI(victoryCheck)
+                    : new QuartoAI(victoryCheck, 16);
+            // Le prime mosse vengono dal libro delle aperture (se è stato generato per queste regole)
+            computer = new LookupEngine(victoryCheck, engine, loadOpeningBook());
+        }
+
         if (timerEnabledSetting) {
-            chessClock = new ChessClock(timerMinutesSetting, this);
+            int incrementSeconds = intent.getIntExtra(StartupActivity.EXTRA_INCREMENT_SECONDS, 0);
+            GameClock.Increment incrementMode = incrementSeconds == 0 ? GameClock.Increment.NONE
+                    : intent.getBooleanExtra(StartupActivity.EXTRA_INCREMENT_BRONSTEIN, false)
+                    ? GameClock.Increment.BRONSTEIN : GameClock.Increment.FISCHER;
+            chessClock = new ChessClock(timerMinutesSetting * 60_000L, incrementSeconds * 1000L, incrementMode, this);
         }
 
-        uiHandler.setupListeners(v -> handleAbortGame(), this::handleQuartoButtonClick);
-        uiHandler.setupBoardImageViews(this::handlePlacePiece);
-        uiHandler.setupAvailablePieceImageViews(currentAvailablePiecesList, this::handleSelectPieceForOpponent);
+        uiHandler.setupListeners(v -> handleAbortGame(), v -> toggleHints(), this::onQuartoButtonClick);
+        uiHandler.setupBoardImageViews(this::onBoardCellClick);
 
+        byte[] saved = savedInstanceState == null ? null : savedInstanceState.getByteArray(STATE_GAME);
+        if (saved != null && restoreGame(GameSnapshot.fromBytes(saved))) {
+            return;
+        }
+        uiHandler.setupAvailablePieceImageViews(board, this::onAvailablePieceClick);
         startGame();
     }
 
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        if (!turn.isGameOver()) {
+            outState.putByteArray(STATE_GAME, saveGame().toBytes());
+        }
+    }
+
+    @Override
+    protected void onDestroy() {
+        cancelComputerTurn();
+        // Con la rotazione l'activity viene ricreata: orologio e attesa della patta ripartono dallo stato salvato
+        if (drawCheckRunnable != null) drawCheckHandler.removeCallbacks(drawCheckRunnable);
+        if (chessClock != null) chessClock.stop();
+        engineExecutor.shutdown();
+        if (computer != null) computer.shutdown();
+        super.onDestroy();
+    }
+
+    // I click dei giocatori umani vengono ignorati mentre tocca al computer
+    private void onBoardCellClick(int row, int col) {
+        if (!isComputerTurn()) handlePlacePiece(row, col);
+    }
+
+    private void onAvailablePieceClick(Piece piece, ImageView pieceImageView) {
+        if (!isComputerTurn()) handleSelectPieceForOpponent(piece, pieceImageView);
+    }
+
+    private void onQuartoButtonClick(int callingPlayer) {
+        if (callingPlayer != computerPlayer) handleQuartoButtonClick(callingPlayer);
+    }
+
+    private boolean isComputerTurn() {
+        return turn.getCurrentPlayer() == computerPlayer;
+    }
+
     private void startGame() {
-        currentPlayer = 1;
-        isSelectingPiecePhase = true;
-        uiHandler.updateGameStateDisplay(currentPlayer, isSelectingPiecePhase);
+        turn.start();
+        uiHandler.updateGameStateDisplay(turn.getCurrentPlayer(), turn.isSelectingPiecePhase(), computerPlayer);
         if (chessClock != null) {
             chessClock.start();
         }
+        startPonderingIfNeeded();
+        startAnalysisIfNeeded();
     }
 
+    //region Salvataggio e ripristino
+    private GameSnapshot saveGame() {
+        Piece player1Piece = board.getPlayerPiece(1);
+        Piece player2Piece = board.getPlayerPiece(2);
+        int[] displayOrder = new int[Piece.COUNT];
+        for (int i = 0; i < Piece.COUNT; i++) {
+            displayOrder[i] = board.getPieceInDisplayOrder(i).getCode();
+        }
+        return new GameSnapshot(board.getBitBoard(), displayOrder, board.getAvailableMask(),
+                player1Piece == null ? -1 : player1Piece.getCode(),
+                player2Piece == null ? -1 : player2Piece.getCode(),
+                turn.getCurrentPlayer(), turn.getPhase(),
+                chessClock == null ? 0 : (int) chessClock.getRemainingMillis(1),
+                chessClock == null ? 0 : (int) chessClock.getRemainingMillis(2),
+                chessClock == null || chessClock.isPlayer1Turn());
+    }
+
+    // Riporta logica e UI allo stato salvato senza rigiocare la partita: false se lo stato non è utilizzabile
+    private boolean restoreGame(GameSnapshot snapshot) {
+        if (snapshot.getPhase() == TurnState.Phase.GAME_OVER) return false;
+
+        board.restore(snapshot.getPosition(), snapshot.getAvailableMask(), snapshot.getDisplayOrder(),
+                snapshot.getPlayerPiece(1), snapshot.getPlayerPiece(2));
+        turn.restore(snapshot.getCurrentPlayer(), snapshot.getPhase());
+
+        uiHandler.setupAvailablePieceImageViews(board, this::onAvailablePieceClick);
+        uiHandler.restoreGameViews(board);
+        uiHandler.updateGameStateDisplay(turn.getCurrentPlayer(), turn.isSelectingPiecePhase(), computerPlayer);
+
+        if (chessClock != null) {
+            chessClock.restore(snapshot.getPlayer1Millis(), snapshot.getPlayer2Millis(), snapshot.isPlayer1ClockActive());
+            chessClock.start();
+        }
+        if (turn.isWaitingForQuartoCall()) {
+            scheduleDrawCheck();
+        }
+        startComputerTurnIfNeeded();
+        startPonderingIfNeeded();
+        startAnalysisIfNeeded();
+        return true;
+    }
+    //endregion
+
     private void handleSelectPieceForOpponent(Piece piece, ImageView pieceImageViewFromList) {
-        if (!isSelectingPiecePhase) {
+        if (!turn.isSelectingPiecePhase()) {
             Toast.makeText(this, R.string.toast_select_spot_first, Toast.LENGTH_SHORT).show();
             return;
         }
 
-        int opponent = (currentPlayer == 1) ? 2 : 1;
+        int currentPlayer = turn.getCurrentPlayer();
+        int opponent = turn.getOpponent();
         if (board.assignPieceToPlayer(opponent, piece)) {
             // Aggiorna UI
             pieceImageViewFromList.setEnabled(false);
@@ -112,23 +259,28 @@ public class MainActivity extends AppCompatActivity implements ChessClock.ChessC
             uiHandler.clearPlayerPieceSlot(currentPlayer);
 
             // Aggiorna logica e stato
-            currentAvailablePiecesList.remove(piece);
-            isSelectingPiecePhase = false;
-            currentPlayer = opponent;
+            turn.pieceGiven();
 
-            if (chessClock != null) {
-                chessClock.switchTurn();
+            if (chessClock != null && !chessClock.switchTurn()) {
+                return; // il pezzo è stato dato a tempo scaduto: la partita è già finita per tempo
             }
-            uiHandler.updateGameStateDisplay(currentPlayer, isSelectingPiecePhase);
+            uiHandler.updateGameStateDisplay(turn.getCurrentPlayer(), turn.isSelectingPiecePhase(), computerPlayer);
+            startComputerTurnIfNeeded();
+            startPonderingIfNeeded();
+            startAnalysisIfNeeded();
         }
     }
 
     private void handlePlacePiece(int row, int col) {
-        if (isSelectingPiecePhase) {
+        if (turn.isSelectingPiecePhase()) {
             Toast.makeText(this, R.string.toast_select_piece_first, Toast.LENGTH_SHORT).show();
             return;
         }
+        if (turn.getPhase() != TurnState.Phase.PLACE_PIECE) {
+            return; // scacchiera piena o partita finita
+        }
 
+        int currentPlayer = turn.getCurrentPlayer();
         Piece pieceToPlace = board.getPlayerPiece(currentPlayer);
         if (pieceToPlace == null) {
             Log.e("MainActivity", "handlePlacePiece: pieceToPlace era null per il giocatore " + currentPlayer);
@@ -141,40 +293,34 @@ public class MainActivity extends AppCompatActivity implements ChessClock.ChessC
             uiHandler.clearPlayerPieceSlot(currentPlayer);
 
             // Controlla fine partita per scacchiera piena, i giocatori hanno 7 secondi per chiamare quarto! diversamente è patta
-            if (isBoardFull()) {
+            boolean boardFull = isBoardFull();
+            turn.piecePlaced(boardFull);
+            if (boardFull) {
                 Log.d("GAME_FLOW", "16° pezzo piazzato. In attesa di chiamata QUARTO!");
-                isWaitingForQuartoCallAfter16th = true;
-
-                drawCheckRunnable = () -> {
-                    if (isWaitingForQuartoCallAfter16th) {
-                        isWaitingForQuartoCallAfter16th = false;
-                        Log.d("GAME_FLOW", "Timer scaduto. Dichiarata PATTA.");
-                        endGame(getString(R.string.dialog_draw_message), null);
-                    }
-                };
-                drawCheckHandler.postDelayed(drawCheckRunnable, 7000); // 7 secondi
-
-                uiHandler.updateGameStateDisplay(currentPlayer, isSelectingPiecePhase);
+                scheduleDrawCheck();
+                stopAnalysis();
+
+                uiHandler.updateGameStateDisplay(currentPlayer, turn.isSelectingPiecePhase(), computerPlayer);
                 return;
             }
 
             // Prosegui al turno successivo
-            isSelectingPiecePhase = true;
-            uiHandler.updateGameStateDisplay(currentPlayer, isSelectingPiecePhase);
+            uiHandler.updateGameStateDisplay(currentPlayer, turn.isSelectingPiecePhase(), computerPlayer);
+            startPonderingIfNeeded();
+            startAnalysisIfNeeded();
         } else {
             Toast.makeText(this, "Mossa non valida!", Toast.LENGTH_SHORT).show();
         }
     }
 
     private void handleQuartoButtonClick(int callingPlayer) {
-        if (callingPlayer != currentPlayer) {
+        if (!turn.canCallQuarto(callingPlayer)) {
             Toast.makeText(this, getString(R.string.dialog_not_your_turn_quarto_message), Toast.LENGTH_SHORT).show();
             return;
         }
 
-        if (isWaitingForQuartoCallAfter16th) {
+        if (turn.quartoCalled()) {
             if (drawCheckRunnable != null) drawCheckHandler.removeCallbacks(drawCheckRunnable);
-            isWaitingForQuartoCallAfter16th = false;
         }
 
         VictoryCheck.VictoryResult result = victoryCheck.checkWin();
@@ -189,15 +335,17 @@ public class MainActivity extends AppCompatActivity implements ChessClock.ChessC
                 endGame(getString(R.string.dialog_draw_message), null);
             } else {
                 uiHandler.showNoQuartoDialog();
-                if (!isBoardFull()) {
-                    isSelectingPiecePhase = true;
-                    uiHandler.updateGameStateDisplay(currentPlayer, isSelectingPiecePhase);
-                }
+                turn.noQuartoFound();
+                uiHandler.updateGameStateDisplay(turn.getCurrentPlayer(), turn.isSelectingPiecePhase(), computerPlayer);
+                startAnalysisIfNeeded();
             }
         }
     }
 
     private void endGame(String message, VictoryCheck.VictoryResult result) {
+        cancelComputerTurn();
+        stopAnalysis();
+        turn.finish();
         if (chessClock != null) chessClock.stop();
         if (result != null) {
             uiHandler.highlightWinningCells(result);
@@ -207,24 +355,26 @@ public class MainActivity extends AppCompatActivity implements ChessClock.ChessC
 
     private void resetGame() {
         // Resetta stato e logica
+        cancelComputerTurn();
+        engineExecutor.cancelAll(); // qualsiasi altra ricerca della partita finita
         board.reset();
-        currentAvailablePiecesList = new ArrayList<>(board.getAvailablePieces());
         if (drawCheckHandler != null && drawCheckRunnable != null) {
             drawCheckHandler.removeCallbacks(drawCheckRunnable);
         }
-        isWaitingForQuartoCallAfter16th = false;
         if (chessClock != null) {
             chessClock.reset();
         }
 
         // Resetta UI tramite handler
-        uiHandler.resetUI(currentAvailablePiecesList, this::handleSelectPieceForOpponent);
+        uiHandler.resetUI(board, this::onAvailablePieceClick);
 
         // Riavvia la partita
         startGame();
     }
 
     private void handleAbortGame() {
+        cancelComputerTurn();
+        engineExecutor.cancelAll();
         if (drawCheckHandler != null && drawCheckRunnable != null) drawCheckHandler.removeCallbacks(drawCheckRunnable);
         if (chessClock != null && chessClock.isRunning()) chessClock.stop();
 
@@ -234,14 +384,228 @@ public class MainActivity extends AppCompatActivity implements ChessClock.ChessC
         finish();
     }
 
+    // Dopo il 16° pezzo i giocatori hanno 7 secondi per chiamare Quarto!, poi è patta
+    private void scheduleDrawCheck() {
+        drawCheckRunnable = () -> {
+            if (turn.isWaitingForQuartoCall()) {
+                turn.finish();
+                Log.d("GAME_FLOW", "Timer scaduto. Dichiarata PATTA.");
+                endGame(getString(R.string.dialog_draw_message), null);
+            }
+        };
+        drawCheckHandler.postDelayed(drawCheckRunnable, 7000); // 7 secondi
+    }
+
     private boolean isBoardFull() {
-        return currentAvailablePiecesList.isEmpty() && board.getPlayerPiece(1) == null && board.getPlayerPiece(2) == null;
+        return board.getBitBoard().isFull();
+    }
+
+    // Se tocca al computer piazzare il pezzo ricevuto, avvia la ricerca in background
+    // Se il pezzo ricevuto era stato previsto, la risposta preparata durante il turno dell'umano è immediata
+    private void startComputerTurnIfNeeded() {
+        if (!isComputerTurn() || turn.getPhase() != TurnState.Phase.PLACE_PIECE) return;
+        Piece pieceInHand = board.getPlayerPiece(computerPlayer);
+        if (pieceInHand == null) return;
+
+        final BitBoard position = new BitBoard(board.getBitBoard());
+        final int hand = pieceInHand.getCode();
+        final int available = board.getAvailableMask();
+
+        QuartoAI.Move reply = null;
+        if (ponderer != null) {
+            if (ponderTask != null && ponderer.isSearching(position, hand)) {
+                ponderer.finishCurrent(); // il pezzo ricevuto è quello in ricerca: basta lasciarla finire
+                reply = ponderer.getReply(position, hand);
+                if (reply == null) return; // la mossa arriva con onPonderFinished
+            } else {
+                reply = ponderer.getReply(position, hand);
+            }
+            stopPondering(); // previsione sbagliata o già usata: le altre risposte non servono più
+        }
+        if (reply != null) {
+            final QuartoAI.Move pondered = reply;
+            computerTask = engineExecutor.submit(null, () -> pondered, this::applyComputerMove, this::onComputerSearchFailed);
+            return;
+        }
+
+        final long budgetMillis = computerBudgetMillis(position.getEmptyCount());
+        computerTask = engineExecutor.submit(computer,
+                () -> computer.findMove(position, hand, available, budgetMillis),
+                this::applyComputerMove, this::onComputerSearchFailed);
+    }
+
+    // Il tempo per una mossa del computer viene preso dal ChessClock, se attivo
+    private long computerBudgetMillis(int emptySquares) {
+        long remainingMillis = Long.MAX_VALUE;
+        if (chessClock != null) {
+            remainingMillis = chessClock.getRemainingMillis(computerPlayer);
+        }
+        return QuartoAI.timeBudgetMillis(remainingMillis, emptySquares, COMPUTER_MAX_THINK_MILLIS);
+    }
+
+    // Esegue le due metà del turno del computer come se fossero click: piazza il pezzo e sceglie quello per l'avversario
+    private void applyComputerMove(QuartoAI.Move move) {
+        computerTask = null;
+        handlePlacePiece(move.square / 4, move.square % 4);
+        if (move.wins) {
+            handleQuartoButtonClick(computerPlayer);
+            return;
+        }
+        if (turn.isWaitingForQuartoCall() || move.pieceToGive < 0) {
+            return; // scacchiera piena: si attende la patta
+        }
+        Piece piece = Piece.fromCode(move.pieceToGive);
+        if (board.isAvailable(piece)) {
+            handleSelectPieceForOpponent(piece, uiHandler.findAvailablePieceView(piece));
+        }
+    }
+
+    // Coda piena: si riprova tra poco. Errore del motore: si gioca subito una mossa sicura senza ricerca,
+    // così la partita non resta mai bloccata in attesa del computer
+    private void onComputerSearchFailed(Exception e) {
+        computerTask = null;
+        if (e instanceof RejectedExecutionException) {
+            Log.w("MainActivity", "Coda delle ricerche piena, nuovo tentativo", e);
+            computerRetryHandler.postDelayed(computerRetryRunnable, COMPUTER_RETRY_MILLIS);
+            return;
+        }
+        Log.e("MainActivity", "Errore nella ricerca del computer", e);
+        if (!isComputerTurn() || turn.getPhase() != TurnState.Phase.PLACE_PIECE) return;
+        Piece pieceInHand = board.getPlayerPiece(computerPlayer);
+        if (pieceInHand == null) return;
+        applyComputerMove(QuartoAI.safeMove(victoryCheck, board.getBitBoard(), pieceInHand.getCode(),
+                board.getAvailableMask()));
+    }
+
+    // Il motore si ferma subito e la sua mossa, se arriva, non viene applicata
+    private void cancelComputerTurn() {
+        computerRetryHandler.removeCallbacks(computerRetryRunnable);
+        stopPondering();
+        if (computerTask != null) {
+            computerTask.cancel();
+            computerTask = null;
+        }
+    }
+
+    //region Ponder: il computer pensa durante il turno dell'umano
+    // Mentre l'umano piazza, si prevede la sua mossa; mentre sceglie il pezzo, si cercano le risposte a ogni pezzo.
+    // Con il risparmio energetico attivo il computer pensa solo nel suo turno
+    private void startPonderingIfNeeded() {
+        if (computer == null || isComputerTurn() || turn.isGameOver() || isPowerSaveMode()) return;
+        final BitBoard position = new BitBoard(board.getBitBoard());
+        final int available = board.getAvailableMask();
+        final Ponderer session;
+        if (turn.getPhase() == TurnState.Phase.PLACE_PIECE) {
+            Piece humanPiece = board.getPlayerPiece(turn.getCurrentPlayer());
+            if (humanPiece == null) return;
+            final int hand = humanPiece.getCode();
+            final long replyMillis = computerBudgetMillis(position.getEmptyCount() - 1);
+            stopPondering();
+            session = new Ponderer(computer, victoryCheck);
+            ponderTask = engineExecutor.submit(computer, () -> {
+                session.ponderPlacement(position, hand, available, PONDER_PREDICT_MILLIS, replyMillis);
+                return session;
+            }, this::onPonderFinished, e -> onPonderFailed(session, e));
+        } else if (turn.isSelectingPiecePhase()) {
+            if (ponderer != null && ponderer.isPondering(position)) return; // l'umano ha piazzato come previsto
+            final long replyMillis = computerBudgetMillis(position.getEmptyCount());
+            stopPondering();
+            session = new Ponderer(computer, victoryCheck);
+            ponderTask = engineExecutor.submit(computer, () -> {
+                session.ponderHandOff(position, available, -1, replyMillis);
+                return session;
+            }, this::onPonderFinished, e -> onPonderFailed(session, e));
+        } else {
+            return;
+        }
+        ponderer = session;
+    }
+
+    // Fine di una sessione di ponder; se il computer aspettava la risposta in ricerca, ora è pronta
+    private void onPonderFinished(Ponderer session) {
+        if (session != ponderer) return;
+        ponderTask = null;
+        if (computerTask == null) startComputerTurnIfNeeded();
+    }
+
+    // Ponder fallito o rifiutato (coda piena): si rinuncia, il computer cercherà nel suo turno come sempre
+    private void onPonderFailed(Ponderer session, Exception e) {
+        Log.w("MainActivity", "Ponder non disponibile", e);
+        if (session != ponderer) return;
+        stopPondering();
+        if (computerTask == null) startComputerTurnIfNeeded(); // il computer poteva aspettare questa sessione
+    }
+
+    private void stopPondering() {
+        if (ponderer != null) ponderer.stop();
+        if (ponderTask != null) ponderTask.cancel();
+        ponderer = null;
+        ponderTask = null;
+    }
+
+    private boolean isPowerSaveMode() {
+        PowerManager power = (PowerManager) getSystemService(Context.POWER_SERVICE);
+        return power != null && power.isPowerSaveMode();
+    }
+    //endregion
+
+    //region Suggerimenti
+    private void toggleHints() {
+        hintsEnabled = !hintsEnabled;
+        uiHandler.setHintButtonActive(hintsEnabled);
+        if (hintsEnabled) startAnalysisIfNeeded();
+        else stopAnalysis();
+    }
+
+    // Analizza la posizione del giocatore umano di turno: mentre piazza si valuta ogni casella, mentre sceglie
+    // ogni pezzo da dare. La prima profondità arriva in pochi millisecondi, le successive aggiornano i colori
+    private void startAnalysisIfNeeded() {
+        stopAnalysis();
+        if (!hintsEnabled || isComputerTurn() || turn.isGameOver()) return;
+        final boolean placing = turn.getPhase() == TurnState.Phase.PLACE_PIECE;
+        if (!placing && !turn.isSelectingPiecePhase()) return;
+        Piece pieceInHand = board.getPlayerPiece(turn.getCurrentPlayer());
+        if (placing && pieceInHand == null) return;
+
+        if (hintEngine == null) hintEngine = new QuartoAI(victoryCheck, 16);
+        final QuartoAI engine = hintEngine;
+        final BitBoard position = new BitBoard(board.getBitBoard());
+        final int hand = placing ? pieceInHand.getCode() : -1;
+        final int available = board.getAvailableMask();
+        hintTask = engineExecutor.<int[], int[]>submitStreaming(engine,
+                publish -> engine.analyze(position, hand, available, HINT_MAX_MILLIS,
+                        (depth, scores, complete) -> publish.onResult(scores)),
+                scores -> uiHandler.showHints(scores, placing),
+                scores -> hintTask = null,
+                e -> {
+                    Log.w("MainActivity", "Suggerimenti non disponibili", e); // si perdono solo i colori
+                    hintTask = null;
+                });
+    }
+
+    private void stopAnalysis() {
+        if (hintTask != null) {
+            hintTask.cancel();
+            hintTask = null;
+        }
+        uiHandler.clearHints();
+    }
+    //endregion
+
+    // Il libro delle aperture negli asset (pochi KB), null se manca o non è leggibile
+    private OpeningBook loadOpeningBook() {
+        try (InputStream in = getAssets().open(OPENING_BOOK_ASSET)) {
+            return OpeningBook.read(in);
+        } catch (IOException | IllegalArgumentException e) {
+            Log.w("MainActivity", "Libro delle aperture non disponibile", e);
+            return null;
+        }
     }
 
     //region Implementazione Listener
     @Override
-    public void onTimeUpdated(String p1Time, String p2Time, int p1Sec, int p2Sec, boolean isP1Active) {
-        uiHandler.updateClock(p1Time, p2Time, isP1Active);
+    public void onTimeUpdated(long p1Millis, long p2Millis, boolean isP1Active) {
+        uiHandler.updateClock(p1Millis, p2Millis, isP1Active);
     }
 
     @Override
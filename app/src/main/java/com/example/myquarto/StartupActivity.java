@@ -7,6 +7,7 @@ package com.example.myquarto;
  * OnCreate è il "builder" dell'interfaccia
  * Metodi:
  * setupSwitch(SwitchCompat aSwitch, boolean initiallyChecked)
+ * setIncrementEnabled(boolean enabled)
  * collectSettingsAndStartGame()
  */
 
@@ -23,11 +24,20 @@ public class StartupActivity extends AppCompatActivity {
 
     public static final String EXTRA_TIMER_ENABLED = "com.example.quarto_android.TIMER_ENABLED";
     public static final String EXTRA_TIMER_MINUTES = "com.example.quarto_android.TIMER_MINUTES";
+    public static final String EXTRA_INCREMENT_SECONDS = "com.example.quarto_android.INCREMENT_SECONDS";
+    public static final String EXTRA_INCREMENT_BRONSTEIN = "com.example.quarto_android.INCREMENT_BRONSTEIN";
     public static final String EXTRA_WIN_PREFERENCES = "com.example.quarto_android.WIN_PREFERENCES";
+    public static final String EXTRA_VS_COMPUTER = "com.example.quarto_android.VS_COMPUTER";
+    public static final String EXTRA_COMPUTER_MCTS = "com.example.quarto_android.COMPUTER_MCTS";
 
     private SwitchCompat switchEnableTimer;
     private EditText editTextTimerMinutes;
     private LinearLayout layoutTimerMinutes;
+    private EditText editTextIncrementSeconds;
+    private LinearLayout layoutTimerIncrement;
+    private SwitchCompat switchIncrementBronstein;
+    private SwitchCompat switchVsComputer;
+    private SwitchCompat switchComputerMcts;
     private SwitchCompat switchWinRows;
     private SwitchCompat switchWinCols;
     private SwitchCompat switchWinDiag;
@@ -48,6 +58,11 @@ public class StartupActivity extends AppCompatActivity {
         switchEnableTimer = findViewById(R.id.switch_enable_timer);
         editTextTimerMinutes = findViewById(R.id.editText_timer_minutes);
         layoutTimerMinutes = findViewById(R.id.layout_timer_minutes);
+        editTextIncrementSeconds = findViewById(R.id.editText_increment_seconds);
+        layoutTimerIncrement = findViewById(R.id.layout_timer_increment);
+        switchIncrementBronstein = findViewById(R.id.switch_increment_bronstein);
+        switchVsComputer = findViewById(R.id.switch_vs_computer);
+        switchComputerMcts = findViewById(R.id.switch_computer_mcts);
 
         switchWinRows = findViewById(R.id.switch_win_rows);
         switchWinCols = findViewById(R.id.switch_win_cols);
@@ -57,8 +72,11 @@ public class StartupActivity extends AppCompatActivity {
         switchWin4x4 = findViewById(R.id.switch_win_4x4);
         buttonStartGame = findViewById(R.id.button_start_game);
 
-        // Impostazioni listeners (Timer disabilitato, vittorie tutte attive tranne la 3x3)
+        // Impostazioni listeners (Timer disabilitato, due giocatori umani, vittorie tutte attive tranne la 3x3)
         setupSwitch(switchEnableTimer, false);
+        setupSwitch(switchIncrementBronstein, false);
+        setupSwitch(switchVsComputer, false);
+        setupSwitch(switchComputerMcts, false);
         setupSwitch(switchWinRows, true);
         setupSwitch(switchWinCols, true);
         setupSwitch(switchWinDiag, true);
@@ -72,11 +90,20 @@ public class StartupActivity extends AppCompatActivity {
             // Controlla l'alpha e l'enabled state del layout per i minuti del timer
             layoutTimerMinutes.setAlpha(isChecked ? ALPHA_ENABLED : ALPHA_DISABLED);
             editTextTimerMinutes.setEnabled(isChecked);
+            setIncrementEnabled(isChecked);
         });
         // Impostazioni stato iniziale per il layout dei minuti
         boolean timerInitiallyEnabled = switchEnableTimer.isChecked();
         layoutTimerMinutes.setAlpha(timerInitiallyEnabled ? ALPHA_ENABLED : ALPHA_DISABLED);
         editTextTimerMinutes.setEnabled(timerInitiallyEnabled);
+        setIncrementEnabled(timerInitiallyEnabled);
+
+        // Il motore del computer si sceglie solo se si gioca contro il computer
+        switchVsComputer.setOnCheckedChangeListener((buttonView, isChecked) -> {
+            buttonView.setAlpha(isChecked ? ALPHA_ENABLED : ALPHA_DISABLED);
+            switchComputerMcts.setEnabled(isChecked);
+        });
+        switchComputerMcts.setEnabled(switchVsComputer.isChecked());
 
         buttonStartGame.setOnClickListener(v -> collectSettingsAndStartGame());
     }
@@ -89,10 +116,18 @@ public class StartupActivity extends AppCompatActivity {
         });
     }
 
+    // L'incremento ha senso solo con il timer attivo
+    private void setIncrementEnabled(boolean enabled) {
+        layoutTimerIncrement.setAlpha(enabled ? ALPHA_ENABLED : ALPHA_DISABLED);
+        editTextIncrementSeconds.setEnabled(enabled);
+        switchIncrementBronstein.setEnabled(enabled);
+    }
+
     // Prende tutte le impostazioni
     private void collectSettingsAndStartGame() {
         boolean timerEnabled = switchEnableTimer.isChecked();
         int timerMinutes = Integer.parseInt(getString(R.string.default_timer_minutes));
+        int incrementSeconds = 0;
 
         if (timerEnabled) {
             try {
@@ -107,6 +142,15 @@ public class StartupActivity extends AppCompatActivity {
             } catch (NumberFormatException e) {
                 Toast.makeText(this, String.format(getString(R.string.toast_invalid_time_default), timerMinutes), Toast.LENGTH_SHORT).show();
             }
+            try {
+                String incrementText = editTextIncrementSeconds.getText().toString();
+                if (!incrementText.isEmpty()) {
+                    incrementSeconds = Integer.parseInt(incrementText);
+                }
+            } catch (NumberFormatException e) {
+                incrementSeconds = 0;
+                Toast.makeText(this, R.string.toast_invalid_increment, Toast.LENGTH_SHORT).show();
+            }
         }
 
         boolean[] winPreferences = new boolean[]{
@@ -122,7 +166,11 @@ public class StartupActivity extends AppCompatActivity {
         Intent intent = new Intent(StartupActivity.this, MainActivity.class);
         intent.putExtra(EXTRA_TIMER_ENABLED, timerEnabled);
         intent.putExtra(EXTRA_TIMER_MINUTES, timerMinutes);
+        intent.putExtra(EXTRA_INCREMENT_SECONDS, incrementSeconds);
+        intent.putExtra(EXTRA_INCREMENT_BRONSTEIN, switchIncrementBronstein.isChecked());
         intent.putExtra(EXTRA_WIN_PREFERENCES, winPreferences);
+        intent.putExtra(EXTRA_VS_COMPUTER, switchVsComputer.isChecked());
+        intent.putExtra(EXTRA_COMPUTER_MCTS, switchComputerMcts.isChecked());
 
         startActivity(intent);
         finish();
@@ -0,0 +1,95 @@
+package com.example.myquarto.benchmarks;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.Board;
+import com.example.myquarto.VictoryCheck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark delle operazioni della BitBoard su cui si basa la ricerca: generazione delle mosse
+ * (casella x pezzo da dare), piazza/togli di un pezzo con aggiornamento di linee e hash.
+ * Ogni invocazione lavora su una posizione diversa di un insieme fisso di posizioni di metà partita.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BitBoardBenchmark {
+    private static final int POSITIONS = 1024; // potenza di due
+
+    private BitBoard[] positions;
+    private int[] available;
+    private VictoryCheck rules;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        positions = Positions.random(POSITIONS, 4, 10, 0x5EEDL);
+        available = new int[POSITIONS];
+        for (int i = 0; i < POSITIONS; i++) {
+            int used = 0;
+            for (int square = 0; square < BitBoard.SQUARES; square++) {
+                if (!positions[i].isEmpty(square)) used |= 1 << positions[i].getCode(square);
+            }
+            available[i] = ~used & 0xFFFF;
+        }
+        rules = new VictoryCheck(new Board(), true, true, true, true, false, true);
+    }
+
+    // Enumera tutte le coppie (casella libera, pezzo da dare) come fa QuartoAI
+    @Benchmark
+    public int moveGeneration() {
+        int i = next++ & (POSITIONS - 1);
+        int empty = ~positions[i].getOccupied() & BitBoard.FULL_MASK;
+        int pieces = available[i];
+        int checksum = 0;
+        for (int squares = empty; squares != 0; squares &= squares - 1) {
+            int square = Integer.numberOfTrailingZeros(squares);
+            for (int codes = pieces; codes != 0; codes &= codes - 1) {
+                checksum += (square << 4) | Integer.numberOfTrailingZeros(codes);
+            }
+        }
+        return checksum;
+    }
+
+    // Come moveGeneration, ma scartando i pezzi che danno Quarto subito all'avversario
+    @Benchmark
+    public int safeMoveGeneration() {
+        int i = next++ & (POSITIONS - 1);
+        BitBoard board = positions[i];
+        int checksum = 0;
+        for (int squares = ~board.getOccupied() & BitBoard.FULL_MASK; squares != 0; squares &= squares - 1) {
+            int square = Integer.numberOfTrailingZeros(squares);
+            int code = Integer.numberOfTrailingZeros(available[i]);
+            board.place(square, code);
+            int safe = available[i] & ~(1 << code) & ~rules.winningPieces(board);
+            board.remove(square);
+            checksum += Integer.bitCount(safe);
+        }
+        return checksum;
+    }
+
+    // Piazza e toglie un pezzo su ogni casella libera
+    @Benchmark
+    public long placeUndo() {
+        int i = next++ & (POSITIONS - 1);
+        BitBoard board = positions[i];
+        int code = Integer.numberOfTrailingZeros(available[i]);
+        long checksum = 0;
+        for (int squares = ~board.getOccupied() & BitBoard.FULL_MASK; squares != 0; squares &= squares - 1) {
+            int square = Integer.numberOfTrailingZeros(squares);
+            board.place(square, code);
+            checksum += board.getHash();
+            board.remove(square);
+        }
+        return checksum;
+    }
+}
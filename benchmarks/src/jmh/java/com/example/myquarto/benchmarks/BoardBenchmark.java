@@ -0,0 +1,51 @@
+package com.example.myquarto.benchmarks;
+
+import com.example.myquarto.Board;
+import com.example.myquarto.Piece;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark della Board usata dalla UI: reset (rimescola i pezzi) e una partita intera
+ * giocata con assignPieceToPlayer/placePlayerPiece, come fa MainActivity.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BoardBenchmark {
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        board = new Board();
+    }
+
+    @Benchmark
+    public Board reset() {
+        board.reset();
+        return board;
+    }
+
+    // reset + 16 turni: il giocatore di turno dà il primo pezzo disponibile e l'avversario lo piazza
+    // sulla prima casella libera
+    @Benchmark
+    public Board fullGame() {
+        board.reset();
+        int player = 2;
+        for (int square = 0; square < 16; square++) {
+            int code = Integer.numberOfTrailingZeros(board.getAvailableMask());
+            board.assignPieceToPlayer(player, Piece.fromCode(code));
+            board.placePlayerPiece(player, square / 4, square % 4);
+            player = player == 1 ? 2 : 1;
+        }
+        return board;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.myquarto.benchmarks;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.Board;
+import com.example.myquarto.VictoryCheck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark di partite casuali complete sulla BitBoard, dalla scacchiera vuota fino al Quarto o alla patta:
+ * il pezzo da dare e la casella sono scelti a caso, senza allocazioni.
+ * Il risultato è il numero di turni giocati (con segno negativo se la partita è finita patta).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PlayoutBenchmark {
+    private BitBoard board;
+    private VictoryCheck rules;
+    private long random;
+
+    @Setup
+    public void setUp() {
+        board = new BitBoard();
+        rules = new VictoryCheck(new Board(), true, true, true, true, false, true);
+        random = 0x9E3779B97F4A7C15L;
+    }
+
+    @Benchmark
+    public int randomPlayout() {
+        board.clear();
+        int available = 0xFFFF;
+        for (int turn = 1; turn <= BitBoard.SQUARES; turn++) {
+            random = Positions.nextRandom(random);
+            int code = BitBoard.nthSetBit(available, (int) Long.remainderUnsigned(random, Integer.bitCount(available)));
+            available &= ~(1 << code);
+            int empty = ~board.getOccupied() & BitBoard.FULL_MASK;
+            random = Positions.nextRandom(random);
+            int square = BitBoard.nthSetBit(empty, (int) Long.remainderUnsigned(random, Integer.bitCount(empty)));
+            if (rules.isWinningMove(board, square, code)) {
+                return turn;
+            }
+            board.place(square, code);
+        }
+        return -BitBoard.SQUARES;
+    }
+}
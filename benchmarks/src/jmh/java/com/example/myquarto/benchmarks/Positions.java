@@ -0,0 +1,53 @@
+package com.example.myquarto.benchmarks;
+
+import com.example.myquarto.BitBoard;
+
+/**
+ * Posizioni casuali ma riproducibili (seme fisso) per i benchmark: ogni esecuzione misura le stesse posizioni.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * random(int count, int minPieces, int maxPieces, long seed)
+ * nextRandom(long state)
+ */
+final class Positions {
+    private Positions() {
+    }
+
+    // count posizioni con un numero di pezzi tra minPieces e maxPieces (pezzi tutti diversi, caselle casuali)
+    static BitBoard[] random(int count, int minPieces, int maxPieces, long seed) {
+        BitBoard[] positions = new BitBoard[count];
+        long state = seed;
+        for (int i = 0; i < count; i++) {
+            BitBoard board = new BitBoard();
+            state = nextRandom(state);
+            int pieces = minPieces + (int) Long.remainderUnsigned(state, maxPieces - minPieces + 1);
+            int used = 0;
+            for (int n = 0; n < pieces; n++) {
+                int square;
+                do {
+                    state = nextRandom(state);
+                    square = (int) (state >>> 60);
+                } while (!board.isEmpty(square));
+                int code;
+                do {
+                    state = nextRandom(state);
+                    code = (int) (state >>> 60);
+                } while ((used & (1 << code)) != 0);
+                used |= 1 << code;
+                board.place(square, code);
+            }
+            positions[i] = board;
+        }
+        return positions;
+    }
+
+    // xorshift64: generatore senza allocazioni, da usare dentro i benchmark al posto di java.util.Random
+    static long nextRandom(long state) {
+        state ^= state << 13;
+        state ^= state >>> 7;
+        state ^= state << 17;
+        return state;
+    }
+}
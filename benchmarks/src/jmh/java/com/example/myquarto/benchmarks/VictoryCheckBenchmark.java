@@ -0,0 +1,66 @@
+package com.example.myquarto.benchmarks;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.Board;
+import com.example.myquarto.VictoryCheck;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark del riconoscimento della vittoria per ogni combinazione delle 6 opzioni di vittoria.
+ * flags: bit 0 righe, bit 1 colonne, bit 2 diagonali, bit 3 quadrati 2x2, bit 4 quadrati 3x3, bit 5 quadrato 4x4
+ * (lo stesso ordine del costruttore di VictoryCheck). Per misurare solo alcune combinazioni:
+ * gradlew :benchmarks:jmh -PjmhIncludes=VictoryCheck con -p flags=7,47 nei jmh args.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VictoryCheckBenchmark {
+    private static final int POSITIONS = 1024; // potenza di due
+
+    @Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15", "16", "17", "18", "19", "20", "21", "22", "23", "24", "25", "26", "27", "28", "29", "30", "31", "32", "33", "34", "35", "36", "37", "38", "39", "40", "41", "42", "43", "44", "45", "46", "47", "48", "49", "50", "51", "52", "53", "54", "55", "56", "57", "58", "59", "60", "61", "62", "63"})
+    public int flags;
+
+    private BitBoard[] positions;
+    private VictoryCheck rules;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        positions = Positions.random(POSITIONS, 4, 15, 0xC0FFEEL);
+        rules = VictoryCheck.fromFlags(new Board(), flags);
+    }
+
+    // Controllo completo con i contatori per linea (quello del pulsante Quarto!)
+    @Benchmark
+    public VictoryCheck.VictoryResult checkWin() {
+        return rules.checkWin(positions[next++ & (POSITIONS - 1)]);
+    }
+
+    // Controllo completo dai soli codici dei pezzi, senza contatori
+    @Benchmark
+    public boolean hasQuarto() {
+        BitBoard board = positions[next++ & (POSITIONS - 1)];
+        return rules.hasQuarto(board.getCells(), board.getOccupied());
+    }
+
+    // Controllo incrementale: il pezzo con codice 0 farebbe Quarto su una delle caselle libere?
+    @Benchmark
+    public int isWinningMove() {
+        BitBoard board = positions[next++ & (POSITIONS - 1)];
+        int wins = 0;
+        for (int squares = ~board.getOccupied() & BitBoard.FULL_MASK; squares != 0; squares &= squares - 1) {
+            if (rules.isWinningMove(board, Integer.numberOfTrailingZeros(squares), 0)) wins++;
+        }
+        return wins;
+    }
+}
@@ -0,0 +1,18 @@
+plugins {
+    id("java-library")
+}
+
+// Modello di gioco, regole e motori di ricerca senza dipendenze Android:
+// si compila e si testa su una JVM qualsiasi (server, benchmark, job batch)
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    testImplementation("junit:junit:4.13.2")
+}
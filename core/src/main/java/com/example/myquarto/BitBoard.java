@@ -0,0 +1,137 @@
+package com.example.myquarto;
+
+import java.util.Arrays;
+
+/**
+ * Questa classe è una rappresentazione compatta della scacchiera di Quarto!
+ * Le 16 caselle sono numerate da 0 a 15 (casella = riga * 4 + colonna).
+ * - cells: una parola a 64 bit con 16 codici pezzo da 4 bit (la casella i occupa i bit 4i..4i+3)
+ * - occupied: una maschera a 16 bit delle caselle occupate (bit i = casella i)
+ * Il codice di un pezzo è quello restituito da Piece.getCode().
+ * Piazzare e togliere un pezzo costa O(1): è la base per ricerca e analisi veloci.
+ * Per ogni linea di WinLines la board tiene anche i contatori degli attributi (lo "stato" della linea):
+ * a ogni place/remove si aggiornano solo le linee che passano dalla casella toccata.
+ * Allo stesso modo viene mantenuto l'hash di Zobrist della scacchiera.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * square(int row, int col)
+ * isInside(int row, int col)
+ * nthSetBit(int mask, int n)
+ * place(int square, int code)
+ * remove(int square)
+ * isEmpty(int square)
+ * getCode(int square)
+ * getCells()
+ * getOccupied()
+ * getLineState(int line)
+ * getHash()
+ * getEmptyCount()
+ * isFull()
+ * copyFrom(BitBoard other)
+ * clear()
+ */
+public final class BitBoard {
+    public static final int SIZE = 4;
+    public static final int SQUARES = 16;
+    public static final int FULL_MASK = 0xFFFF; // tutte le caselle occupate
+
+    private long cells;
+    private int occupied;
+    private long hash;
+    private final int[] lineStates = new int[WinLines.COUNT];
+
+    public BitBoard() {
+    }
+
+    public BitBoard(BitBoard other) {
+        copyFrom(other);
+    }
+
+    public static int square(int row, int col) {
+        return row * SIZE + col;
+    }
+
+    public static boolean isInside(int row, int col) {
+        return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
+    }
+
+    // Il bit n-esimo (da 0) acceso della maschera: serve a scegliere a caso una casella vuota o un pezzo libero
+    public static int nthSetBit(int mask, int n) {
+        for (int i = 0; i < n; i++) {
+            mask &= mask - 1;
+        }
+        return Integer.numberOfTrailingZeros(mask);
+    }
+
+    // Piazza un pezzo su una casella vuota (la casella deve essere vuota: nessun controllo qui)
+    public void place(int square, int code) {
+        cells |= ((long) code) << (square << 2);
+        occupied |= 1 << square;
+        hash ^= Zobrist.pieceOnSquare(square, code);
+        int increment = WinLines.STATE_INCREMENT[code];
+        for (int line : WinLines.CELL_LINE_LIST[square]) {
+            lineStates[line] += increment;
+        }
+    }
+
+    // Toglie il pezzo dalla casella: è l'"undo" di place()
+    public void remove(int square) {
+        int code = getCode(square);
+        hash ^= Zobrist.pieceOnSquare(square, code);
+        int decrement = WinLines.STATE_INCREMENT[code];
+        for (int line : WinLines.CELL_LINE_LIST[square]) {
+            lineStates[line] -= decrement;
+        }
+        cells &= ~(0xFL << (square << 2));
+        occupied &= ~(1 << square);
+    }
+
+    public boolean isEmpty(int square) {
+        return (occupied & (1 << square)) == 0;
+    }
+
+    // Codice del pezzo sulla casella, ha senso solo se la casella è occupata
+    public int getCode(int square) {
+        return (int) (cells >>> (square << 2)) & 0xF;
+    }
+
+    public long getCells() {
+        return cells;
+    }
+
+    public int getOccupied() {
+        return occupied;
+    }
+
+    public int getLineState(int line) {
+        return lineStates[line];
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    public int getEmptyCount() {
+        return SQUARES - Integer.bitCount(occupied);
+    }
+
+    public boolean isFull() {
+        return occupied == FULL_MASK;
+    }
+
+    public void copyFrom(BitBoard other) {
+        this.cells = other.cells;
+        this.occupied = other.occupied;
+        this.hash = other.hash;
+        System.arraycopy(other.lineStates, 0, this.lineStates, 0, WinLines.COUNT);
+    }
+
+    public void clear() {
+        cells = 0L;
+        occupied = 0;
+        hash = 0L;
+        Arrays.fill(lineStates, 0);
+    }
+}
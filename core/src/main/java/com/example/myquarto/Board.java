@@ -0,0 +1,164 @@
+package com.example.myquarto;
+
+/**
+ * Questa classe rappresenta una BOARD del gioco Quarto!
+ * Una board è una matrice 4*4 di pedine
+ * Internamente la matrice è una BitBoard (codici a 4 bit + maschera di occupazione):
+ * i metodi pubblici restano quelli di sempre e fanno da facciata sulla BitBoard.
+ * Anche i pezzi disponibili sono una maschera a 16 bit (bit c = pezzo con codice c): si scorrono senza
+ * allocare con il solito ciclo sui bit (mask &= mask - 1). L'ordine mescolato con cui la UI mostra
+ * i pezzi è tenuto a parte (getPieceInDisplayOrder).
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * assignPieceToPlayer(int player, Piece piece)
+ * placePlayerPiece(int player, int row, int col)
+ * getPlayerPiece(int player)
+ * getAvailablePieces()
+ * getAvailableMask(), isAvailable(Piece piece)
+ * getPieceInDisplayOrder(int index)
+ * isValidSpot(int row, int col)
+ * getPiece(int row, int col)
+ * reset()
+ * getGrid()
+ * getBitBoard()
+ * restore(BitBoard position, int availableMask, int[] displayOrder, int player1Code, int player2Code)
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+public class Board {
+    private final BitBoard bitBoard;
+    private int availableMask;                                 // bit c = pezzo con codice c ancora da assegnare
+    private final int[] displayOrder = new int[Piece.COUNT];  // codici dei pezzi nell'ordine mescolato
+    private final Random random = new Random();
+    private Piece player1Piece; // Pezzo che il giocatore 1 deve piazzare
+    private Piece player2Piece; // Pezzo che il giocatore 2 deve piazzare
+
+    public Board() {
+        this.bitBoard = new BitBoard();
+        reset(); // tutti i pezzi disponibili, mescolati
+    }
+
+    public boolean assignPieceToPlayer(int player, Piece piece) {
+        if (!isAvailable(piece)) return false; // Pezzo non più disponibile
+
+        if (player == 1) {
+            player1Piece = piece;
+        } else if (player == 2) {
+            player2Piece = piece;
+        } else {
+            return false; // Giocatore non valido
+        }
+
+        availableMask &= ~(1 << piece.getCode()); // Rimuove il pezzo da quelli globalmente disponibili
+        return true;
+    }
+
+    public boolean placePlayerPiece(int player, int row, int col) {
+        Piece pieceToPlace = (player == 1) ? player1Piece : player2Piece;
+
+        if (pieceToPlace == null || !isValidSpot(row, col)) {
+            return false;
+        }
+
+        bitBoard.place(BitBoard.square(row, col), pieceToPlace.getCode());
+
+        if (player == 1) {
+            player1Piece = null;
+        } else {
+            player2Piece = null;
+        }
+
+        return true;
+    }
+    public Piece getPlayerPiece(int player) {
+        return (player == 1) ? player1Piece : player2Piece;
+    }
+    // Lista nuova dei pezzi disponibili nell'ordine mescolato (alloca: nei cicli usare getAvailableMask)
+    public List<Piece> getAvailablePieces() {
+        List<Piece> pieces = new ArrayList<>(Integer.bitCount(availableMask));
+        for (int code : displayOrder) {
+            if ((availableMask & (1 << code)) != 0) pieces.add(Piece.fromCode(code));
+        }
+        return pieces;
+    }
+
+    public int getAvailableMask() {
+        return availableMask;
+    }
+
+    public boolean isAvailable(Piece piece) {
+        return piece != null && (availableMask & (1 << piece.getCode())) != 0;
+    }
+
+    // Il pezzo in posizione index (0-15) dell'ordine mescolato, anche se è già stato usato
+    public Piece getPieceInDisplayOrder(int index) {
+        return Piece.fromCode(displayOrder[index]);
+    }
+
+    // Controlla se una casella è valida (entro i limiti e vuota)
+    public boolean isValidSpot(int row, int col) {
+        return BitBoard.isInside(row, col) && bitBoard.isEmpty(BitBoard.square(row, col));
+    }
+    public Piece getPiece(int row, int col) {
+        if (!BitBoard.isInside(row, col)) return null;
+        int square = BitBoard.square(row, col);
+        return bitBoard.isEmpty(square) ? null : Piece.fromCode(bitBoard.getCode(square));
+    }
+
+    public void reset() {
+        bitBoard.clear();
+
+        availableMask = BitBoard.FULL_MASK;
+        for (int i = 0; i < Piece.COUNT; i++) {
+            displayOrder[i] = i;
+        }
+        for (int i = Piece.COUNT - 1; i > 0; i--) { // Fisher-Yates
+            int j = random.nextInt(i + 1);
+            int code = displayOrder[i];
+            displayOrder[i] = displayOrder[j];
+            displayOrder[j] = code;
+        }
+
+        player1Piece = null;
+        player2Piece = null;
+    }
+
+    @Override
+    public String toString() {
+        return "Board{" +
+                "grid=" + Arrays.deepToString(getGrid()) +
+                ", availablePieces=" + getAvailablePieces() +
+                ", player1Piece=" + player1Piece +
+                ", player2Piece=" + player2Piece +
+                '}';
+    }
+
+    // Copia della scacchiera come matrice di pezzi (la board non conserva più una Piece[][])
+    public Piece[][] getGrid() {
+        Piece[][] grid = new Piece[4][4];
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 4; col++) {
+                grid[row][col] = getPiece(row, col);
+            }
+        }
+        return grid;
+    }
+
+    public BitBoard getBitBoard() {
+        return bitBoard;
+    }
+
+    // Ripristina una partita salvata: caselle, pezzi disponibili, ordine dei 16 pezzi e pezzi in mano (-1 = nessuno)
+    public void restore(BitBoard position, int availableMask, int[] displayOrder, int player1Code, int player2Code) {
+        bitBoard.copyFrom(position);
+        this.availableMask = availableMask & BitBoard.FULL_MASK;
+        System.arraycopy(displayOrder, 0, this.displayOrder, 0, Piece.COUNT);
+        player1Piece = player1Code < 0 ? null : Piece.fromCode(player1Code);
+        player2Piece = player2Code < 0 ? null : Piece.fromCode(player2Code);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.myquarto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Questa classe riduce una posizione di Quarto! alla sua forma canonica.
+ * Due posizioni sono equivalenti se si passa dall'una all'altra con:
+ * - una simmetria della scacchiera: una permutazione delle caselle che trasforma l'insieme delle linee
+ *   vincenti abilitate in se stesso (con righe, colonne e diagonali sono 32; abilitare i quadrati 2x2 o 3x3
+ *   cambia il gruppo, per questo le simmetrie si calcolano dalle linee di VictoryCheck);
+ * - una simmetria dei pezzi: invertire uno qualsiasi dei 4 attributi (XOR sul codice) e permutare gli attributi.
+ * La forma canonica è la più piccola tra tutte le trasformate (prima la maschera di occupazione, poi i codici,
+ * poi il pezzo in mano): posizioni equivalenti hanno la stessa forma canonica e quindi la stessa chiave,
+ * così tabelle delle trasposizioni, libri di aperture e cache possono condividere le voci.
+ *
+ * Costo: (simmetrie della scacchiera con occupazione minima) x 24 permutazioni x 16 caselle, quindi va usata
+ * dove serve una chiave stabile (aperture, finali, archivi) e non in ogni nodo della ricerca.
+ * Non è thread-safe: l'ultima trasformazione scelta resta nell'istanza per mapSquare/unmapSquare ecc.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * geometricSymmetries(int enabledLines)
+ * canonicalize(BitBoard board, int hand)
+ * canonicalize(long cells, int occupied, int hand)
+ * getCanonicalCells(), getCanonicalOccupied(), getCanonicalHand()
+ * mapSquare(int square), unmapSquare(int square)
+ * mapPiece(int code), unmapPiece(int code)
+ * symmetryCount()
+ */
+public final class Canonicalizer {
+    // Le 24 permutazioni di {0, 1, 2, 3} (la prima è l'identità), usate sia per righe/colonne sia per gli attributi
+    private static final int[][] PERMUTATIONS = buildPermutations();
+    // Le permutazioni degli attributi applicate ai 16 codici: PERMUTED_CODES[p][codice], e le loro inverse
+    private static final int[][] PERMUTED_CODES = new int[24][16];
+    private static final int[][] UNPERMUTED_CODES = new int[24][16];
+
+    static {
+        for (int p = 0; p < PERMUTATIONS.length; p++) {
+            for (int code = 0; code < 16; code++) {
+                int permuted = 0;
+                for (int k = 0; k < 4; k++) {
+                    permuted |= ((code >> k) & 1) << PERMUTATIONS[p][k];
+                }
+                PERMUTED_CODES[p][code] = permuted;
+                UNPERMUTED_CODES[p][permuted] = code;
+            }
+        }
+    }
+
+    // Simmetrie della scacchiera valide per le linee abilitate: squareMaps[g][casella] = casella trasformata
+    private final int[][] squareMaps;
+    private final int[][] inverseSquareMaps;
+    private final int[] transformedOccupancy;
+
+    // Ultima forma canonica calcolata e trasformazione usata per ottenerla
+    private long canonicalCells;
+    private int canonicalOccupied;
+    private int canonicalHand;
+    private int chosenSymmetry;
+    private int chosenPermutation;
+    private int chosenXor;
+
+    // enabledLines: maschera delle linee abilitate (VictoryCheck.getEnabledLines())
+    public Canonicalizer(int enabledLines) {
+        this.squareMaps = geometricSymmetries(enabledLines);
+        this.inverseSquareMaps = new int[squareMaps.length][BitBoard.SQUARES];
+        for (int g = 0; g < squareMaps.length; g++) {
+            for (int square = 0; square < BitBoard.SQUARES; square++) {
+                inverseSquareMaps[g][squareMaps[g][square]] = square;
+            }
+        }
+        this.transformedOccupancy = new int[squareMaps.length];
+    }
+
+    // Tutte le permutazioni delle caselle del tipo (permuta righe, permuta colonne, eventualmente trasponi)
+    // che mandano l'insieme delle linee abilitate in se stesso. La prima è sempre l'identità.
+    public static int[][] geometricSymmetries(int enabledLines) {
+        int[] lineMasks = new int[Integer.bitCount(enabledLines)];
+        int n = 0;
+        for (int line = 0; line < WinLines.COUNT; line++) {
+            if ((enabledLines & (1 << line)) != 0) lineMasks[n++] = WinLines.MASKS[line];
+        }
+        Arrays.sort(lineMasks);
+
+        List<int[]> symmetries = new ArrayList<>();
+        int[] mapped = new int[lineMasks.length];
+        for (int transpose = 0; transpose < 2; transpose++) {
+            for (int[] rows : PERMUTATIONS) {
+                for (int[] cols : PERMUTATIONS) {
+                    int[] map = new int[BitBoard.SQUARES];
+                    for (int row = 0; row < 4; row++) {
+                        for (int col = 0; col < 4; col++) {
+                            map[BitBoard.square(row, col)] = transpose == 0
+                                    ? BitBoard.square(rows[row], cols[col])
+                                    : BitBoard.square(cols[col], rows[row]);
+                        }
+                    }
+                    for (int i = 0; i < lineMasks.length; i++) {
+                        mapped[i] = mapMask(map, lineMasks[i]);
+                    }
+                    Arrays.sort(mapped);
+                    if (Arrays.equals(mapped, lineMasks)) {
+                        symmetries.add(map);
+                    }
+                }
+            }
+        }
+        return symmetries.toArray(new int[0][]);
+    }
+
+    private static int[][] buildPermutations() {
+        int[][] result = new int[24][];
+        int i = 0;
+        for (int a = 0; a < 4; a++) {
+            for (int b = 0; b < 4; b++) {
+                for (int c = 0; c < 4; c++) {
+                    int d = 6 - a - b - c;
+                    if (a == b || a == c || b == c || d < 0 || d > 3 || d == a || d == b || d == c) continue;
+                    result[i++] = new int[]{a, b, c, d};
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int mapMask(int[] map, int mask) {
+        int mapped = 0;
+        for (int squares = mask; squares != 0; squares &= squares - 1) {
+            mapped |= 1 << map[Integer.numberOfTrailingZeros(squares)];
+        }
+        return mapped;
+    }
+
+    public long canonicalize(BitBoard board, int hand) {
+        return canonicalize(board.getCells(), board.getOccupied(), hand);
+    }
+
+    // Calcola la forma canonica (cells, occupied, hand) e ne restituisce la chiave di Zobrist.
+    // hand = -1 se nessun pezzo è in mano.
+    public long canonicalize(long cells, int occupied, int hand) {
+        int bestOccupied = Integer.MAX_VALUE;
+        for (int g = 0; g < squareMaps.length; g++) {
+            transformedOccupancy[g] = mapMask(squareMaps[g], occupied);
+            bestOccupied = Math.min(bestOccupied, transformedOccupancy[g]);
+        }
+
+        boolean found = false;
+        long bestCells = 0L;
+        int bestHand = 0;
+        for (int g = 0; g < squareMaps.length; g++) {
+            if (transformedOccupancy[g] != bestOccupied) continue;
+            int[] inverse = inverseSquareMaps[g];
+            int firstSource = bestOccupied == 0 ? -1 : inverse[Integer.numberOfTrailingZeros(bestOccupied)];
+            for (int p = 0; p < PERMUTED_CODES.length; p++) {
+                int[] permuted = PERMUTED_CODES[p];
+                // XOR scelto in modo che il primo pezzo (o il pezzo in mano, a scacchiera vuota) diventi il codice 0
+                int xor;
+                if (firstSource >= 0) {
+                    xor = permuted[(int) (cells >>> (firstSource << 2)) & 0xF];
+                } else {
+                    xor = hand >= 0 ? permuted[hand] : 0;
+                }
+                long transformed = 0L;
+                for (int targets = bestOccupied; targets != 0; targets &= targets - 1) {
+                    int target = Integer.numberOfTrailingZeros(targets);
+                    int code = (int) (cells >>> (inverse[target] << 2)) & 0xF;
+                    transformed |= (long) (permuted[code] ^ xor) << (target << 2);
+                }
+                int transformedHand = hand >= 0 ? permuted[hand] ^ xor : -1;
+                int order = found ? Long.compareUnsigned(transformed, bestCells) : -1;
+                if (order < 0 || (order == 0 && transformedHand < bestHand)) {
+                    found = true;
+                    bestCells = transformed;
+                    bestHand = transformedHand;
+                    chosenSymmetry = g;
+                    chosenPermutation = p;
+                    chosenXor = xor;
+                }
+            }
+        }
+
+        canonicalCells = bestCells;
+        canonicalOccupied = bestOccupied;
+        canonicalHand = bestHand;
+        return Zobrist.hash(canonicalCells, canonicalOccupied) ^ Zobrist.hand(canonicalHand);
+    }
+
+    public long getCanonicalCells() {
+        return canonicalCells;
+    }
+
+    public int getCanonicalOccupied() {
+        return canonicalOccupied;
+    }
+
+    public int getCanonicalHand() {
+        return canonicalHand;
+    }
+
+    // Casella della posizione originale -> casella della forma canonica (per l'ultima canonicalize)
+    public int mapSquare(int square) {
+        return squareMaps[chosenSymmetry][square];
+    }
+
+    public int unmapSquare(int square) {
+        return inverseSquareMaps[chosenSymmetry][square];
+    }
+
+    // Codice di un pezzo della posizione originale -> codice nella forma canonica
+    public int mapPiece(int code) {
+        return PERMUTED_CODES[chosenPermutation][code] ^ chosenXor;
+    }
+
+    public int unmapPiece(int code) {
+        return UNPERMUTED_CODES[chosenPermutation][code ^ chosenXor];
+    }
+
+    public int symmetryCount() {
+        return squareMaps.length;
+    }
+}
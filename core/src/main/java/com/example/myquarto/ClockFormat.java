@@ -0,0 +1,65 @@
+package com.example.myquarto;
+
+/**
+ * Questa classe scrive il tempo di un orologio in un char[] riusato, senza String.format né altre allocazioni,
+ * così il display può essere aggiornato anche 10 volte al secondo senza lavoro per il garbage collector.
+ *
+ * Sopra i 10 secondi il tempo è mostrato come MM:SS, sotto come SS.d (decimi). In entrambi i casi il valore è
+ * arrotondato per eccesso, quindi 00.0 compare solo quando il tempo è davvero finito. displayKey dice che cosa
+ * verrebbe mostrato: due tempi con la stessa chiave producono lo stesso testo, e chi disegna può saltarli.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * displayKey(long millis)
+ * format(long millis, char[] out)
+ * millisUntilChange(long millis)
+ */
+public final class ClockFormat {
+    // Sotto questo numero di decimi (10 s) si mostrano i decimi
+    public static final int TENTHS_LIMIT = 100;
+    // Abbastanza per 999 minuti ("999:59"), il massimo impostabile
+    public static final int MAX_CHARS = 8;
+
+    private ClockFormat() {
+    }
+
+    // Il tempo mostrato in decimi di secondo: i secondi interi sopra i 10 s, i decimi sotto
+    public static long displayKey(long millis) {
+        if (millis <= 0) return 0;
+        long tenths = (millis + 99) / 100;
+        if (tenths < TENTHS_LIMIT) return tenths;
+        return (millis + 999) / 1000 * 10;
+    }
+
+    // Scrive il tempo in out a partire dalla posizione 0 e restituisce il numero di caratteri
+    public static int format(long millis, char[] out) {
+        long key = displayKey(millis);
+        if (key < TENTHS_LIMIT) {
+            out[0] = (char) ('0' + key / 100);
+            out[1] = (char) ('0' + key / 10 % 10);
+            out[2] = '.';
+            out[3] = (char) ('0' + key % 10);
+            return 4;
+        }
+        long totalSeconds = key / 10;
+        long minutes = totalSeconds / 60;
+        int length = 0;
+        if (minutes >= 100) out[length++] = (char) ('0' + minutes / 100 % 10);
+        out[length++] = (char) ('0' + minutes / 10 % 10);
+        out[length++] = (char) ('0' + minutes % 10);
+        out[length++] = ':';
+        out[length++] = (char) ('0' + totalSeconds % 60 / 10);
+        out[length++] = (char) ('0' + totalSeconds % 10);
+        return length;
+    }
+
+    // Millisecondi prima che cambi il testo mostrato (Long.MAX_VALUE se il tempo è già finito)
+    public static long millisUntilChange(long millis) {
+        if (millis <= 0) return Long.MAX_VALUE;
+        long tenths = (millis + 99) / 100;
+        if (tenths < TENTHS_LIMIT) return millis - (tenths - 1) * 100;
+        long seconds = (millis + 999) / 1000;
+        return millis - Math.max((seconds - 1) * 1000, (TENTHS_LIMIT - 1) * 100L);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.myquarto;
+
+/**
+ * Questa classe è la contabilità dell'orologio da scacchi, senza nulla di Android: ChessClock la usa
+ * per l'app, ma funziona allo stesso modo in un test o in un simulatore.
+ *
+ * Il tempo non viene scalato a ogni tick: a ogni evento (start, stop, cambio turno) si sottrae al giocatore
+ * attivo la differenza esatta tra due istanti di un orologio monotono (in nanosecondi, passati da chi chiama,
+ * per esempio SystemClock.elapsedRealtimeNanos o System.nanoTime). Così un tick in ritardo o un dispositivo
+ * sotto carico cambiano solo quando viene ridisegnato il display, mai il tempo addebitato.
+ *
+ * Incrementi: con FISCHER il giocatore riceve l'incremento dopo ogni sua mossa, con BRONSTEIN riceve
+ * il tempo usato nella mossa, al massimo l'incremento (chi gioca entro l'incremento non perde nulla).
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * start(long nowNanos)
+ * stop(long nowNanos)
+ * switchTurn(long nowNanos)
+ * reset()
+ * restore(long player1Millis, long player2Millis, boolean player1Turn)
+ * getRemainingMillis(int player, long nowNanos)
+ * getRemainingNanos(int player, long nowNanos)
+ * isExpired(long nowNanos)
+ * isRunning(), isPlayer1Turn(), getIncrementMode(), getIncrementMillis()
+ */
+public final class GameClock {
+
+    public enum Increment {
+        NONE,
+        FISCHER,   // +incremento dopo ogni mossa
+        BRONSTEIN  // +min(incremento, tempo usato nella mossa)
+    }
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final long initialNanos;
+    private final long incrementNanos;
+    private final Increment incrementMode;
+
+    private long player1Nanos;
+    private long player2Nanos;
+    private boolean player1Turn = true;
+    private boolean running;
+    private long segmentStartNanos; // istante dell'ultimo addebito, valido solo se running
+    private long usedThisTurnNanos; // tempo usato nella mossa in corso (serve per Bronstein)
+
+    public GameClock(long initialMillisPerPlayer, long incrementMillis, Increment incrementMode) {
+        if (initialMillisPerPlayer <= 0) {
+            throw new IllegalArgumentException("Il tempo iniziale deve essere positivo.");
+        }
+        if (incrementMillis < 0) {
+            throw new IllegalArgumentException("L'incremento non può essere negativo.");
+        }
+        if (incrementMode == null) {
+            throw new IllegalArgumentException("Il tipo di incremento non può essere null.");
+        }
+        this.initialNanos = initialMillisPerPlayer * NANOS_PER_MILLI;
+        this.incrementNanos = incrementMode == Increment.NONE ? 0 : incrementMillis * NANOS_PER_MILLI;
+        this.incrementMode = incrementMode;
+        reset();
+    }
+
+    public void start(long nowNanos) {
+        if (running) return;
+        running = true;
+        segmentStartNanos = nowNanos;
+    }
+
+    public void stop(long nowNanos) {
+        if (!running) return;
+        charge(nowNanos);
+        running = false;
+    }
+
+    // Chiude la mossa del giocatore attivo e passa il tempo all'avversario.
+    // Restituisce false (senza cambiare turno) se il giocatore attivo aveva già finito il tempo
+    public boolean switchTurn(long nowNanos) {
+        if (running) charge(nowNanos);
+        if (activeNanos() <= 0) return false;
+
+        long bonus = incrementMode == Increment.BRONSTEIN ? Math.min(incrementNanos, usedThisTurnNanos) : incrementNanos;
+        if (player1Turn) player1Nanos += bonus;
+        else player2Nanos += bonus;
+        player1Turn = !player1Turn;
+        usedThisTurnNanos = 0;
+        return true;
+    }
+
+    // Tempo iniziale a entrambi, orologio fermo e giocatore 1 di turno
+    public void reset() {
+        player1Nanos = initialNanos;
+        player2Nanos = initialNanos;
+        player1Turn = true;
+        running = false;
+        usedThisTurnNanos = 0;
+    }
+
+    // Ripristina i tempi di una partita salvata (l'orologio resta fermo fino a start())
+    public void restore(long player1Millis, long player2Millis, boolean player1Turn) {
+        this.player1Nanos = player1Millis * NANOS_PER_MILLI;
+        this.player2Nanos = player2Millis * NANOS_PER_MILLI;
+        this.player1Turn = player1Turn;
+        this.running = false;
+        this.usedThisTurnNanos = 0;
+    }
+
+    // Tempo rimasto in millisecondi, mai negativo
+    public long getRemainingMillis(int player, long nowNanos) {
+        return getRemainingNanos(player, nowNanos) / NANOS_PER_MILLI;
+    }
+
+    public long getRemainingNanos(int player, long nowNanos) {
+        long remaining = player == 1 ? player1Nanos : player2Nanos;
+        if (running && (player == 1) == player1Turn) {
+            remaining -= nowNanos - segmentStartNanos;
+        }
+        return Math.max(0, remaining);
+    }
+
+    // true se il giocatore attivo ha finito il tempo
+    public boolean isExpired(long nowNanos) {
+        return getRemainingNanos(player1Turn ? 1 : 2, nowNanos) == 0;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isPlayer1Turn() {
+        return player1Turn;
+    }
+
+    public Increment getIncrementMode() {
+        return incrementMode;
+    }
+
+    public long getIncrementMillis() {
+        return incrementNanos / NANOS_PER_MILLI;
+    }
+
+    private void charge(long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - segmentStartNanos);
+        segmentStartNanos = nowNanos;
+        usedThisTurnNanos += elapsed;
+        if (player1Turn) player1Nanos -= elapsed;
+        else player2Nanos -= elapsed;
+    }
+
+    private long activeNanos() {
+        return player1Turn ? player1Nanos : player2Nanos;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.myquarto;
+
+/**
+ * Questa classe è la registrazione compatta di una partita: condizioni di vittoria, impostazioni dell'orologio,
+ * risultato e le mosse, ognuna in un solo byte (pezzo piazzato nei 4 bit alti, casella nei 4 bit bassi).
+ * Il pezzo scelto per l'avversario non serve salvarlo a parte: è il pezzo della mossa successiva.
+ * La mossa i (da 0) è piazzata dal giocatore 2 se i è pari, dal giocatore 1 se è dispari
+ * (il giocatore 1 sceglie il primo pezzo, come in TurnState).
+ *
+ * È mutabile e riutilizzabile: GameRecordReader legge le partite una dopo l'altra nello stesso oggetto,
+ * così anche milioni di partite non allocano nulla. Su disco si scrive con GameRecordWriter.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * clear()
+ * getRuleFlags(), setRuleFlags(int flags)
+ * getClockSeconds(), getIncrementSeconds(), setClock(int clockSeconds, int incrementSeconds)
+ * getResult(), getEnding(), setResult(int result, int ending)
+ * addMove(int square, int piece)
+ * getMoveCount(), getMove(int index), getSquare(int index), getPiece(int index)
+ * packMove(int square, int piece)
+ */
+public final class GameRecord {
+    // Risultato
+    public static final int RESULT_UNFINISHED = 0;
+    public static final int RESULT_PLAYER1_WINS = 1;
+    public static final int RESULT_PLAYER2_WINS = 2;
+    public static final int RESULT_DRAW = 3;
+
+    // Come è finita la partita
+    public static final int ENDING_NONE = 0;
+    public static final int ENDING_QUARTO = 1;     // l'ultima mossa fa Quarto!
+    public static final int ENDING_FULL_BOARD = 2; // scacchiera piena senza Quarto
+    public static final int ENDING_TIMEOUT = 3;    // tempo scaduto sul ChessClock
+    public static final int ENDING_FORFEIT = 4;    // abbandono o mossa illegale
+
+    public static final int MAX_CLOCK_SECONDS = 0xFFFF;
+    public static final int MAX_INCREMENT_SECONDS = 0xFF;
+
+    private int ruleFlags;        // come VictoryCheck.fromFlags: bit 0 righe, 1 colonne, 2 diagonali, 3 quadrati 2x2, 4 quadrati 3x3, 5 quadrato 4x4
+    private int clockSeconds;     // tempo iniziale per giocatore, 0 = senza orologio
+    private int incrementSeconds; // secondi aggiunti a ogni mossa
+    private int result;
+    private int ending;
+    private final byte[] moves = new byte[BitBoard.SQUARES];
+    private int moveCount;
+
+    public void clear() {
+        ruleFlags = 0;
+        clockSeconds = 0;
+        incrementSeconds = 0;
+        result = RESULT_UNFINISHED;
+        ending = ENDING_NONE;
+        moveCount = 0;
+    }
+
+    public int getRuleFlags() {
+        return ruleFlags;
+    }
+
+    public void setRuleFlags(int flags) {
+        if ((flags & ~0x3F) != 0) {
+            throw new IllegalArgumentException("Condizioni di vittoria non valide: " + flags);
+        }
+        this.ruleFlags = flags;
+    }
+
+    public int getClockSeconds() {
+        return clockSeconds;
+    }
+
+    public int getIncrementSeconds() {
+        return incrementSeconds;
+    }
+
+    public void setClock(int clockSeconds, int incrementSeconds) {
+        if (clockSeconds < 0 || clockSeconds > MAX_CLOCK_SECONDS
+                || incrementSeconds < 0 || incrementSeconds > MAX_INCREMENT_SECONDS) {
+            throw new IllegalArgumentException("Impostazioni dell'orologio non valide.");
+        }
+        this.clockSeconds = clockSeconds;
+        this.incrementSeconds = incrementSeconds;
+    }
+
+    public int getResult() {
+        return result;
+    }
+
+    public int getEnding() {
+        return ending;
+    }
+
+    public void setResult(int result, int ending) {
+        if (result < RESULT_UNFINISHED || result > RESULT_DRAW || ending < ENDING_NONE || ending > ENDING_FORFEIT) {
+            throw new IllegalArgumentException("Risultato non valido.");
+        }
+        this.result = result;
+        this.ending = ending;
+    }
+
+    public void addMove(int square, int piece) {
+        if (moveCount == BitBoard.SQUARES) {
+            throw new IllegalStateException("La partita ha già 16 mosse.");
+        }
+        moves[moveCount++] = packMove(square, piece);
+    }
+
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    // Mossa impacchettata (0-255)
+    public int getMove(int index) {
+        return moves[index] & 0xFF;
+    }
+
+    public int getSquare(int index) {
+        return moves[index] & 0xF;
+    }
+
+    public int getPiece(int index) {
+        return (moves[index] >> 4) & 0xF;
+    }
+
+    public static byte packMove(int square, int piece) {
+        if (square < 0 || square >= BitBoard.SQUARES || piece < 0 || piece >= BitBoard.SQUARES) {
+            throw new IllegalArgumentException("Mossa non valida: casella " + square + ", pezzo " + piece);
+        }
+        return (byte) (piece << 4 | square);
+    }
+
+    // Usati da GameRecordReader per riempire il record senza passare da addMove
+    byte[] moveBuffer() {
+        return moves;
+    }
+
+    void setMoveCount(int moveCount) {
+        this.moveCount = moveCount;
+    }
+}
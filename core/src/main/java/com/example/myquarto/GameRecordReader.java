@@ -0,0 +1,89 @@
+package com.example.myquarto;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Questa classe legge le partite scritte da GameRecordWriter una alla volta, riempiendo sempre lo stesso
+ * GameRecord: un file con milioni di partite si scorre con memoria costante.
+ * Il formato è descritto in GameRecordWriter.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * next(GameRecord into)
+ * getGamesRead()
+ * close()
+ */
+public final class GameRecordReader implements Closeable {
+    private final InputStream in;
+    private final byte[] header = new byte[GameRecordWriter.GAME_HEADER_BYTES];
+    private long gamesRead;
+
+    public GameRecordReader(InputStream in) throws IOException {
+        this.in = new BufferedInputStream(in, 1 << 16);
+        byte[] magic = new byte[4];
+        if (!readFully(magic, 4) || ((magic[0] & 0xFF) << 24 | (magic[1] & 0xFF) << 16
+                | (magic[2] & 0xFF) << 8 | (magic[3] & 0xFF)) != GameRecordWriter.MAGIC) {
+            throw new IOException("Il file non contiene partite di Quarto.");
+        }
+    }
+
+    // Legge la partita successiva in into; false alla fine del file, IOException se è troncata o non valida
+    public boolean next(GameRecord into) throws IOException {
+        int first = in.read();
+        if (first < 0) return false;
+        header[0] = (byte) first;
+        if (!readFully(header, 1, GameRecordWriter.GAME_HEADER_BYTES - 1)) {
+            throw new EOFException("Partita " + gamesRead + " troncata.");
+        }
+        int moveCount = header[2] & 0xFF;
+        if (moveCount > BitBoard.SQUARES) {
+            throw new IOException("Partita " + gamesRead + " non valida: " + moveCount + " mosse.");
+        }
+        int flags = header[0] & 0xFF;
+        if ((flags & ~0x3F) != 0) {
+            throw new IOException("Partita " + gamesRead + " non valida: condizioni di vittoria " + flags + ".");
+        }
+        int ending = (header[1] & 0xFF) >>> 2;
+        if (ending > GameRecord.ENDING_FORFEIT) {
+            throw new IOException("Partita " + gamesRead + " non valida: fine della partita " + ending + ".");
+        }
+        into.clear();
+        into.setRuleFlags(flags);
+        into.setResult(header[1] & 0x3, ending); // il risultato occupa 2 bit: ogni valore è valido
+        into.setClock((header[4] & 0xFF) << 8 | (header[5] & 0xFF), header[3] & 0xFF);
+        if (!readFully(into.moveBuffer(), 0, moveCount)) {
+            throw new EOFException("Partita " + gamesRead + " troncata.");
+        }
+        into.setMoveCount(moveCount);
+        gamesRead++;
+        return true;
+    }
+
+    public long getGamesRead() {
+        return gamesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private boolean readFully(byte[] target, int length) throws IOException {
+        return readFully(target, 0, length);
+    }
+
+    private boolean readFully(byte[] target, int offset, int length) throws IOException {
+        while (length > 0) {
+            int n = in.read(target, offset, length);
+            if (n < 0) return false;
+            offset += n;
+            length -= n;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.myquarto;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Questa classe scrive partite (GameRecord) una dopo l'altra su uno stream, senza tenerle in memoria.
+ *
+ * Formato (big-endian):
+ * intestazione del file di 4 byte: MAGIC;
+ * per ogni partita un'intestazione di 6 byte: condizioni di vittoria (1), risultato | fine << 2 (1),
+ * numero di mosse (1), incremento in secondi (1), tempo iniziale in secondi (2);
+ * poi le mosse, un byte ciascuna (pezzo << 4 | casella). Una partita completa occupa quindi al più 22 byte.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * write(GameRecord record)
+ * getGamesWritten()
+ * flush(), close()
+ */
+public final class GameRecordWriter implements Closeable, Flushable {
+    public static final int MAGIC = 0x51475231; // "QGR1"
+    public static final int GAME_HEADER_BYTES = 6;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[GAME_HEADER_BYTES + BitBoard.SQUARES];
+    private long gamesWritten;
+
+    public GameRecordWriter(OutputStream out) throws IOException {
+        this.out = new BufferedOutputStream(out, 1 << 16);
+        this.out.write(MAGIC >>> 24);
+        this.out.write(MAGIC >>> 16);
+        this.out.write(MAGIC >>> 8);
+        this.out.write(MAGIC);
+    }
+
+    public void write(GameRecord record) throws IOException {
+        int moveCount = record.getMoveCount();
+        int clock = record.getClockSeconds();
+        buffer[0] = (byte) record.getRuleFlags();
+        buffer[1] = (byte) (record.getResult() | record.getEnding() << 2);
+        buffer[2] = (byte) moveCount;
+        buffer[3] = (byte) record.getIncrementSeconds();
+        buffer[4] = (byte) (clock >>> 8);
+        buffer[5] = (byte) clock;
+        System.arraycopy(record.moveBuffer(), 0, buffer, GAME_HEADER_BYTES, moveCount);
+        out.write(buffer, 0, GAME_HEADER_BYTES + moveCount);
+        gamesWritten++;
+    }
+
+    public long getGamesWritten() {
+        return gamesWritten;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
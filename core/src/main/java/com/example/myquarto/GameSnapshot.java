@@ -0,0 +1,151 @@
+package com.example.myquarto;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Questa classe è la fotografia compatta di una partita in corso, da salvare quando Android ricrea
+ * MainActivity (rotazione, processo terminato): scacchiera, pezzi disponibili nell'ordine in cui sono mostrati,
+ * pezzi in mano, turno e orologio. Occupa SIZE_BYTES byte, quindi entra senza problemi in un Bundle.
+ *
+ * Formato (big-endian): versione (1), celle della BitBoard (8), occupazione (2), ordine di visualizzazione
+ * dei 16 pezzi, un codice ogni 4 bit (8), maschera dei disponibili (2), pezzo in mano al giocatore 1 + 1 (1),
+ * al giocatore 2 + 1 (1), giocatore di turno (1), fase (1), millisecondi rimasti al giocatore 1 (4), al giocatore 2 (4),
+ * orologio del giocatore 1 attivo (1).
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * toBytes()
+ * fromBytes(byte[] bytes)
+ * getPosition(), getDisplayOrder(), getAvailableMask()
+ * getPlayerPiece(int player), getCurrentPlayer(), getPhase()
+ * getPlayer1Millis(), getPlayer2Millis(), isPlayer1ClockActive()
+ */
+public final class GameSnapshot {
+    private static final int VERSION = 2;
+    public static final int SIZE_BYTES = 34;
+
+    private final long cells;
+    private final int occupied;
+    private final long displayOrder; // codice del pezzo i-esimo nei bit 4i..4i+3
+    private final int availableMask;
+    private final int player1Piece;  // -1 = nessuno
+    private final int player2Piece;
+    private final int currentPlayer;
+    private final TurnState.Phase phase;
+    private final int player1Millis;
+    private final int player2Millis;
+    private final boolean player1ClockActive;
+
+    // displayOrder: i codici dei 16 pezzi nell'ordine in cui sono mostrati (anche quelli già usati)
+    public GameSnapshot(BitBoard position, int[] displayOrder, int availableMask, int player1Piece, int player2Piece,
+                        int currentPlayer, TurnState.Phase phase,
+                        int player1Millis, int player2Millis, boolean player1ClockActive) {
+        if (displayOrder.length != BitBoard.SQUARES) {
+            throw new IllegalArgumentException("Servono i codici di tutti i 16 pezzi.");
+        }
+        long order = 0;
+        for (int i = 0; i < BitBoard.SQUARES; i++) {
+            order |= (long) displayOrder[i] << (i << 2);
+        }
+        this.cells = position.getCells();
+        this.occupied = position.getOccupied();
+        this.displayOrder = order;
+        this.availableMask = availableMask;
+        this.player1Piece = player1Piece;
+        this.player2Piece = player2Piece;
+        this.currentPlayer = currentPlayer;
+        this.phase = phase;
+        this.player1Millis = player1Millis;
+        this.player2Millis = player2Millis;
+        this.player1ClockActive = player1ClockActive;
+    }
+
+    private GameSnapshot(ByteBuffer buffer) {
+        if (buffer.remaining() != SIZE_BYTES || buffer.get() != VERSION) {
+            throw new IllegalArgumentException("Stato della partita non valido.");
+        }
+        this.cells = buffer.getLong();
+        this.occupied = buffer.getShort() & 0xFFFF;
+        this.displayOrder = buffer.getLong();
+        this.availableMask = buffer.getShort() & 0xFFFF;
+        this.player1Piece = buffer.get() - 1;
+        this.player2Piece = buffer.get() - 1;
+        this.currentPlayer = buffer.get();
+        int phaseIndex = buffer.get();
+        this.player1Millis = buffer.getInt();
+        this.player2Millis = buffer.getInt();
+        this.player1ClockActive = buffer.get() != 0;
+        if (phaseIndex < 0 || phaseIndex >= TurnState.Phase.values().length
+                || (currentPlayer != 1 && currentPlayer != 2)) {
+            throw new IllegalArgumentException("Stato della partita non valido.");
+        }
+        this.phase = TurnState.Phase.values()[phaseIndex];
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE_BYTES);
+        buffer.put((byte) VERSION)
+                .putLong(cells)
+                .putShort((short) occupied)
+                .putLong(displayOrder)
+                .putShort((short) availableMask)
+                .put((byte) (player1Piece + 1))
+                .put((byte) (player2Piece + 1))
+                .put((byte) currentPlayer)
+                .put((byte) phase.ordinal())
+                .putInt(player1Millis)
+                .putInt(player2Millis)
+                .put((byte) (player1ClockActive ? 1 : 0));
+        return buffer.array();
+    }
+
+    public static GameSnapshot fromBytes(byte[] bytes) {
+        return new GameSnapshot(ByteBuffer.wrap(bytes));
+    }
+
+    public BitBoard getPosition() {
+        BitBoard position = new BitBoard();
+        for (int squares = occupied; squares != 0; squares &= squares - 1) {
+            int square = Integer.numberOfTrailingZeros(squares);
+            position.place(square, (int) (cells >>> (square << 2)) & 0xF);
+        }
+        return position;
+    }
+
+    public int[] getDisplayOrder() {
+        int[] order = new int[BitBoard.SQUARES];
+        for (int i = 0; i < BitBoard.SQUARES; i++) {
+            order[i] = (int) (displayOrder >>> (i << 2)) & 0xF;
+        }
+        return order;
+    }
+
+    public int getAvailableMask() {
+        return availableMask;
+    }
+
+    public int getPlayerPiece(int player) {
+        return player == 1 ? player1Piece : player2Piece;
+    }
+
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public TurnState.Phase getPhase() {
+        return phase;
+    }
+
+    public int getPlayer1Millis() {
+        return player1Millis;
+    }
+
+    public int getPlayer2Millis() {
+        return player2Millis;
+    }
+
+    public boolean isPlayer1ClockActive() {
+        return player1ClockActive;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.myquarto;
+/**
+ * Questa classe rappresenta una pedina del gioco Quarto.
+ * Ogni pedina ha 4 attributi, gli attributi sono binari:
+ * - larghezza (largo, stretto)
+ * - forma (quadrato, rotondo)
+ * - colore (chiaro, scuro) (in verità non importa: basta che siano due colori diversi)
+ * - tipo (pieno, vuoto)
+ * Le pedine sono solo 16 e non cambiano mai: ne esiste un'unica istanza per combinazione di attributi,
+ * creata una volta sola (fromCode, of, all). Per questo due pedine si confrontano con ==.
+ */
+
+/**
+ * I metodi di questa classe sono:
+ * Standard get
+ * getCode()
+ * ToShortString()
+ * fromCode(int code)
+ * of(Larghezza larghezza, Forma forma, Colore colore, Tipo tipo)
+ * all()
+ */
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public final class Piece {
+    public static final int COUNT = 16;
+
+    // le variabili sono di tipo final perchè all'interno del gioco gli attributi di una pedina non possono cambiare.
+    private final Larghezza larghezza;
+    private final Forma forma;
+    private final Colore colore;
+    private final Tipo tipo;
+    // Codice a 4 bit della pedina: bit 0 larghezza, bit 1 forma, bit 2 colore, bit 3 tipo
+    // (0 = primo valore dell'enum, 1 = secondo). Usato dalla BitBoard.
+    private final int code;
+
+    // Attributi
+    public enum Larghezza { LARGO, STRETTO }
+    public enum Forma { QUADRATO, ROTONDO }
+    public enum Colore { CHIARO, SCURO }
+    public enum Tipo { PIENO, VUOTO }
+    // Le 16 istanze, indicizzate per codice
+    private static final Piece[] BY_CODE = new Piece[COUNT];
+    private static final List<Piece> ALL;
+
+    static {
+        for (Larghezza l : Larghezza.values()) {
+            for (Forma f : Forma.values()) {
+                for (Colore c : Colore.values()) {
+                    for (Tipo t : Tipo.values()) {
+                        Piece piece = new Piece(l, f, c, t);
+                        BY_CODE[piece.code] = piece;
+                    }
+                }
+            }
+        }
+        ALL = Collections.unmodifiableList(Arrays.asList(BY_CODE.clone()));
+    }
+
+    // Costruttore privato: le pedine si ottengono con fromCode, of o all
+    private Piece(Larghezza larghezza, Forma forma, Colore colore, Tipo tipo) {
+        this.larghezza = larghezza;
+        this.forma = forma;
+        this.colore = colore;
+        this.tipo = tipo;
+        this.code = larghezza.ordinal()
+                | forma.ordinal() << 1
+                | colore.ordinal() << 2
+                | tipo.ordinal() << 3;
+    }
+
+    // Non servono i setter perchè i pezzi sono statici
+    public Larghezza getLarghezza() {
+        return larghezza;
+    }
+
+    public Forma getForma() {
+        return forma;
+    }
+
+    public Colore getColore() {
+        return colore;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String toShortString() {
+        return larghezza.name().charAt(0) + "" +   // "L" o "S"
+                forma.name().charAt(0) + "" +       // "Q" o "R"
+                colore.name().charAt(0) + "" +      // "C" o "S"
+                tipo.name().charAt(0);              // "P" o "V"
+    }
+
+    // La pedina con il codice a 4 bit dato
+    public static Piece fromCode(int code) {
+        if (code < 0 || code >= COUNT) {
+            throw new IllegalArgumentException("Codice della pedina non valido: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    public static Piece of(Larghezza larghezza, Forma forma, Colore colore, Tipo tipo) {
+        return BY_CODE[larghezza.ordinal() | forma.ordinal() << 1 | colore.ordinal() << 2 | tipo.ordinal() << 3];
+    }
+
+    // Le 16 pedine in ordine di codice (lista non modificabile, sempre la stessa)
+    public static List<Piece> all() {
+        return ALL;
+    }
+}
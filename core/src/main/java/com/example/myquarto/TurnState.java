@@ -0,0 +1,118 @@
+package com.example.myquarto;
+
+/**
+ * Questa classe è la macchina a stati del turno di Quarto!, senza nulla di grafico.
+ * Ogni turno ha due metà: il giocatore di turno sceglie il pezzo per l'avversario (SELECT_PIECE),
+ * poi il turno passa all'avversario che deve piazzarlo (PLACE_PIECE). Dopo il 16° pezzo la partita
+ * resta in attesa di una chiamata Quarto! (WAITING_QUARTO_CALL) prima di essere dichiarata patta.
+ *
+ * La classe non conosce scacchiera né regole: chi la usa (MainActivity, i simulatori) controlla
+ * le mosse con Board e VictoryCheck e comunica qui solo l'esito.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * start()
+ * getCurrentPlayer(), getOpponent(), getPhase()
+ * isSelectingPiecePhase(), isWaitingForQuartoCall()
+ * canCallQuarto(int player)
+ * pieceGiven()
+ * piecePlaced(boolean boardFull)
+ * quartoCalled()
+ * noQuartoFound()
+ * finish(), isGameOver()
+ * restore(int currentPlayer, Phase phase)
+ */
+public final class TurnState {
+
+    public enum Phase {
+        SELECT_PIECE,        // il giocatore di turno sceglie il pezzo per l'avversario
+        PLACE_PIECE,         // il giocatore di turno piazza il pezzo ricevuto
+        WAITING_QUARTO_CALL, // scacchiera piena: si attende una chiamata Quarto! prima della patta
+        GAME_OVER
+    }
+
+    private int currentPlayer = 1;
+    private Phase phase = Phase.SELECT_PIECE;
+
+    // Nuova partita: il giocatore 1 sceglie il primo pezzo
+    public void start() {
+        currentPlayer = 1;
+        phase = Phase.SELECT_PIECE;
+    }
+
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public int getOpponent() {
+        return currentPlayer == 1 ? 2 : 1;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public boolean isSelectingPiecePhase() {
+        return phase == Phase.SELECT_PIECE;
+    }
+
+    public boolean isWaitingForQuartoCall() {
+        return phase == Phase.WAITING_QUARTO_CALL;
+    }
+
+    // Quarto! può essere chiamato solo dal giocatore di turno e a partita in corso
+    public boolean canCallQuarto(int player) {
+        return player == currentPlayer && phase != Phase.GAME_OVER;
+    }
+
+    // Il pezzo è stato consegnato all'avversario, che ora deve piazzarlo
+    public void pieceGiven() {
+        if (phase != Phase.SELECT_PIECE) {
+            throw new IllegalStateException("Non è il momento di scegliere un pezzo.");
+        }
+        currentPlayer = getOpponent();
+        phase = Phase.PLACE_PIECE;
+    }
+
+    // Il pezzo è stato piazzato: si sceglie il prossimo o, a scacchiera piena, si attende Quarto!
+    public void piecePlaced(boolean boardFull) {
+        if (phase != Phase.PLACE_PIECE) {
+            throw new IllegalStateException("Non è il momento di piazzare un pezzo.");
+        }
+        phase = boardFull ? Phase.WAITING_QUARTO_CALL : Phase.SELECT_PIECE;
+    }
+
+    // Il giocatore di turno ha chiamato Quarto!: a scacchiera piena la partita finisce comunque
+    // (vittoria o patta). Restituisce true se la partita era in attesa della chiamata dopo il 16° pezzo
+    public boolean quartoCalled() {
+        if (phase != Phase.WAITING_QUARTO_CALL) {
+            return false;
+        }
+        phase = Phase.GAME_OVER;
+        return true;
+    }
+
+    // La chiamata Quarto! era sbagliata: il giocatore di turno prosegue scegliendo il pezzo
+    public void noQuartoFound() {
+        phase = Phase.SELECT_PIECE;
+    }
+
+    // Vittoria, patta o tempo scaduto: nessuna altra mossa è accettata fino a start()
+    public void finish() {
+        phase = Phase.GAME_OVER;
+    }
+
+    public boolean isGameOver() {
+        return phase == Phase.GAME_OVER;
+    }
+
+    // Ripristina lo stato salvato (per esempio quando Android ricrea MainActivity)
+    public void restore(int currentPlayer, Phase phase) {
+        if ((currentPlayer != 1 && currentPlayer != 2) || phase == null) {
+            throw new IllegalArgumentException("Stato del turno non valido.");
+        }
+        this.currentPlayer = currentPlayer;
+        this.phase = phase;
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.myquarto;
+
+/**
+ * Questa classe rappresenta quali possono essere le diverse vittorie del gioco Quarto!
+ * Le vittorie possono essere in:
+ * verticale
+ * orizzontale
+ * diagonale
+ * sui vertici dei quadrati 2x2
+ * sui vertici dei quadrati 3x3
+ * sui vertici dei quadrati 4x4
+ *
+ * le vittorie possono essere di uno qualsiasi degli attributi in comune
+ * (es tutti chiari, tutti pieni etc)
+ * l'ordine di controllo delle posizioni vincenti è stato assegnato in maniera casuale: righe, colonne, diagonali e vertici
+ * l'ordine di controllo degli attributi è stato assegnato in maniera casuale: larghezza, forma, colore, tipo
+ */
+
+/**
+ * I metodi di questa classe sono:
+ * fromFlags(Board board, int flags)
+ * checkWin()
+ * checkWin(BitBoard bitBoard)
+ * checkWin(long cells, int occupied)
+ * hasQuarto(long cells, int occupied)
+ * findWinningLine(long cells, int occupied)
+ * isWinningMove(int row, int col, Piece piece)
+ * isWinningMove(BitBoard bitBoard, int square, int code)
+ * winningPieces(BitBoard bitBoard)
+ * winningSquare(BitBoard bitBoard, int code)
+ * getEnabledLines()
+ *
+ * Le linee (gruppi di 4 caselle) sono precalcolate in WinLines: per ogni linea piena bastano
+ * pochi XOR sui codici a 4 bit dei pezzi per sapere quali attributi hanno in comune.
+ * Sulla BitBoard invece si usano i contatori per linea aggiornati a ogni mossa: "questa mossa vince?"
+ * guarda solo le linee che passano dalla casella, senza riscandire la scacchiera.
+ */
+public class VictoryCheck {
+    // Tipi di vittoria basati sugli attributi dei pezzi
+    public enum VictoryType {
+        NONE,
+        LARGHEZZA, FORMA, COLORE, TIPO
+    }
+
+    // Quali posizioni possono essere coperte
+    public enum WinPosition {
+        ROW, COLUMN, DIAGONAL, SQUARE_2x2, SQUARE_3x3, SQUARE_4x4
+    }
+
+    // Risultato del controllo di vittoria
+    public static class VictoryResult {
+        public final VictoryType type;
+        public final WinPosition position;
+        public final int index; // Riga/colonna (0-3), diagonale principale o secondaria e coordinate dei vertici dei quadrati
+        public VictoryResult(VictoryType type, WinPosition position, int index) {
+            this.type = type;
+            this.position = position;
+            this.index = index;
+        }
+    }
+
+    // Risultato "nessuna vittoria" condiviso, e risultati precalcolati per ogni (linea, attributo):
+    // checkWin() non alloca nulla, restituisce sempre una di queste istanze immutabili
+    public static final VictoryResult NO_VICTORY = new VictoryResult(VictoryType.NONE, null, -1);
+    private static final VictoryType[] TYPES_BY_ATTRIBUTE = {
+            VictoryType.LARGHEZZA, VictoryType.FORMA, VictoryType.COLORE, VictoryType.TIPO
+    };
+    private static final VictoryResult[] RESULTS = new VictoryResult[WinLines.COUNT * 4];
+
+    static {
+        for (int line = 0; line < WinLines.COUNT; line++) {
+            for (int attribute = 0; attribute < 4; attribute++) {
+                RESULTS[line * 4 + attribute] = new VictoryResult(TYPES_BY_ATTRIBUTE[attribute],
+                        WinLines.POSITIONS[line], WinLines.INDICES[line]);
+            }
+        }
+    }
+
+    private final Board board;
+    // Le linee da controllare sono decise una volta sola dai flag del costruttore
+    // (sono final perchè una volta decisi all'inizio della partita non possono cambiare)
+    // Il default è tutto on tranne 3x3 squares
+    private final int enabledLines; // bit l = linea l di WinLines abilitata
+    private final int[] lines;      // le stesse linee in ordine di controllo
+
+    // constructor
+    public VictoryCheck(Board board,
+                        boolean checkRows,
+                        boolean checkColumns,
+                        boolean checkDiagonal,
+                        boolean check2x2Squares,
+                        boolean check3x3Squares,
+                        boolean check4x4Square) {
+        this.board = board;
+        this.enabledLines = WinLines.linesFor(checkRows, checkColumns, checkDiagonal,
+                check2x2Squares, check3x3Squares, check4x4Square);
+        this.lines = new int[Integer.bitCount(enabledLines)];
+        int i = 0;
+        for (int line = 0; line < WinLines.COUNT; line++) {
+            if ((enabledLines & (1 << line)) != 0) lines[i++] = line;
+        }
+    }
+
+    // Le stesse condizioni come maschera di bit, il formato usato dagli strumenti e dai file (GameRecord, libri):
+    // bit 0 righe, 1 colonne, 2 diagonali, 3 quadrati 2x2, 4 quadrati 3x3, 5 quadrato 4x4 (47 = regole di default)
+    public static VictoryCheck fromFlags(Board board, int flags) {
+        if ((flags & ~0x3F) != 0) {
+            throw new IllegalArgumentException("Condizioni di vittoria non valide: " + flags);
+        }
+        return new VictoryCheck(board,
+                (flags & 1) != 0, (flags & 2) != 0, (flags & 4) != 0,
+                (flags & 8) != 0, (flags & 16) != 0, (flags & 32) != 0);
+    }
+
+    // Metodo per verificare la vittoria sulla board della partita
+    public VictoryResult checkWin() {
+        return checkWin(board.getBitBoard());
+    }
+
+    // Verifica la vittoria usando i contatori per linea della BitBoard (un confronto per linea)
+    public VictoryResult checkWin(BitBoard bitBoard) {
+        for (int line : lines) {
+            if (WinLines.isQuarto(bitBoard.getLineState(line))) {
+                int attribute = Integer.numberOfTrailingZeros(WinLines.commonAttributes(bitBoard.getCells(), line));
+                return RESULTS[line * 4 + attribute];
+            }
+        }
+        return NO_VICTORY;
+    }
+
+    // Verifica la vittoria su una posizione qualsiasi (codici + maschera di occupazione)
+    // l'ordine di controllo è quello di WinLines: righe, colonne, diagonali e vertici
+    // l'ordine degli attributi è: larghezza, forma, colore, tipo
+    public VictoryResult checkWin(long cells, int occupied) {
+        int line = findWinningLine(cells, occupied);
+        if (line < 0) {
+            return NO_VICTORY;
+        }
+        int attribute = Integer.numberOfTrailingZeros(WinLines.commonAttributes(cells, line));
+        return RESULTS[line * 4 + attribute];
+    }
+
+    public boolean hasQuarto(long cells, int occupied) {
+        return findWinningLine(cells, occupied) >= 0;
+    }
+
+    // Restituisce la prima linea abilitata che forma un Quarto, -1 se non ce ne sono
+    public int findWinningLine(long cells, int occupied) {
+        for (int line : lines) {
+            int mask = WinLines.MASKS[line];
+            if ((occupied & mask) == mask && WinLines.commonAttributes(cells, line) != 0) {
+                return line;
+            }
+        }
+        return -1;
+    }
+
+    // Piazzare questo pezzo su questa casella (vuota) della board della partita darebbe un Quarto?
+    public boolean isWinningMove(int row, int col, Piece piece) {
+        return board.isValidSpot(row, col) && isWinningMove(board.getBitBoard(), BitBoard.square(row, col), piece.getCode());
+    }
+
+    // Costa O(linee che passano dalla casella): si guardano solo le linee abilitate con 3 pezzi
+    public boolean isWinningMove(BitBoard bitBoard, int square, int code) {
+        for (int line : WinLines.CELL_LINE_LIST[square]) {
+            if ((enabledLines & (1 << line)) != 0
+                    && WinLines.completesQuarto(bitBoard.getLineState(line), code)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Maschera dei codici dei pezzi che, dati all'avversario, gli permetterebbero di fare subito Quarto
+    public int winningPieces(BitBoard bitBoard) {
+        int pieces = 0;
+        for (int line : lines) {
+            pieces |= WinLines.completingPieces(bitBoard.getLineState(line));
+        }
+        return pieces;
+    }
+
+    // Una casella dove il pezzo con questo codice fa Quarto, -1 se non esiste
+    public int winningSquare(BitBoard bitBoard, int code) {
+        for (int line : lines) {
+            if ((WinLines.completingPieces(bitBoard.getLineState(line)) & (1 << code)) != 0) {
+                return Integer.numberOfTrailingZeros(WinLines.MASKS[line] & ~bitBoard.getOccupied());
+            }
+        }
+        return -1;
+    }
+
+    public int getEnabledLines() {
+        return enabledLines;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.myquarto;
+
+/**
+ * Questa classe contiene le tabelle precalcolate di tutte le linee vincenti di Quarto!
+ * Una "linea" è un gruppo di 4 caselle (indici 0..15 della BitBoard) che può dare un Quarto:
+ * 4 righe, 4 colonne, 2 diagonali, 9 quadrati 2x2, 4 quadrati 3x3 e i vertici della scacchiera.
+ * L'ordine delle linee è lo stesso usato da VictoryCheck.checkWin(): righe, colonne, diagonali e vertici,
+ * così il primo Quarto trovato è sempre lo stesso.
+ * Le tabelle sono costruite una volta sola; VictoryCheck ne seleziona un sottoinsieme in base ai flag.
+ *
+ * Lo "stato" di una linea (mantenuto dalla BitBoard a ogni place/remove) è un int con contatori da 4 bit:
+ * il nibble k (k = 0..3) conta i pezzi della linea con il bit k del codice a 1, i bit 16..19 contano i pezzi.
+ * Una linea è un Quarto quando ha 4 pezzi e almeno un contatore di attributo vale 0 o 4.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * linesFor(boolean rows, boolean columns, boolean diagonals, boolean squares2x2, boolean squares3x3, boolean square4x4)
+ * commonAttributes(long cells, int line)
+ * isQuarto(int state)
+ * completesQuarto(int state, int code)
+ * completingPieces(int state)
+ */
+public final class WinLines {
+    public static final int COUNT = 24;
+
+    // Per ogni linea: le 4 caselle, la maschera a 16 bit, il tipo di posizione e l'indice usato dalla UI
+    public static final int[][] SQUARES = new int[COUNT][];
+    public static final int[] MASKS = new int[COUNT];
+    public static final VictoryCheck.WinPosition[] POSITIONS = new VictoryCheck.WinPosition[COUNT];
+    public static final int[] INDICES = new int[COUNT];
+    // Per ogni casella: maschera delle linee (bit l = linea l) che passano da quella casella, e le stesse come elenco
+    public static final int[] CELL_LINES = new int[BitBoard.SQUARES];
+    public static final int[][] CELL_LINE_LIST = new int[BitBoard.SQUARES][];
+
+    // Incremento dello stato di una linea quando vi si piazza il pezzo con quel codice
+    public static final int[] STATE_INCREMENT = new int[16];
+    private static final int COUNT_SHIFT = 16;
+    private static final int ONE_PIECE = 1 << COUNT_SHIFT;
+    private static final int THREE_PIECES = 3 << COUNT_SHIFT;
+    private static final int FOUR_PIECES = 4 << COUNT_SHIFT;
+    // Maschere a 16 bit (bit c = pezzo con codice c) dei pezzi con il bit k del codice a 1 / a 0
+    private static final int[] PIECES_WITH_BIT = {0xAAAA, 0xCCCC, 0xF0F0, 0xFF00};
+
+    static {
+        int l = 0;
+        for (int row = 0; row < 4; row++) {
+            l = add(l, VictoryCheck.WinPosition.ROW, row, sq(row, 0), sq(row, 1), sq(row, 2), sq(row, 3));
+        }
+        for (int col = 0; col < 4; col++) {
+            l = add(l, VictoryCheck.WinPosition.COLUMN, col, sq(0, col), sq(1, col), sq(2, col), sq(3, col));
+        }
+        l = add(l, VictoryCheck.WinPosition.DIAGONAL, 0, sq(0, 0), sq(1, 1), sq(2, 2), sq(3, 3)); // principale
+        l = add(l, VictoryCheck.WinPosition.DIAGONAL, 1, sq(0, 3), sq(1, 2), sq(2, 1), sq(3, 0)); // secondaria
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                l = add(l, VictoryCheck.WinPosition.SQUARE_2x2, row * 10 + col,
+                        sq(row, col), sq(row, col + 1), sq(row + 1, col), sq(row + 1, col + 1));
+            }
+        }
+        for (int row = 0; row < 2; row++) {
+            for (int col = 0; col < 2; col++) {
+                l = add(l, VictoryCheck.WinPosition.SQUARE_3x3, row * 10 + col,
+                        sq(row, col), sq(row, col + 2), sq(row + 2, col), sq(row + 2, col + 2));
+            }
+        }
+        add(l, VictoryCheck.WinPosition.SQUARE_4x4, 0, sq(0, 0), sq(0, 3), sq(3, 0), sq(3, 3));
+
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            CELL_LINE_LIST[square] = new int[Integer.bitCount(CELL_LINES[square])];
+            int i = 0;
+            for (int line = 0; line < COUNT; line++) {
+                if ((CELL_LINES[square] & (1 << line)) != 0) CELL_LINE_LIST[square][i++] = line;
+            }
+        }
+        for (int code = 0; code < 16; code++) {
+            STATE_INCREMENT[code] = ONE_PIECE
+                    | (code & 1)
+                    | ((code >> 1) & 1) << 4
+                    | ((code >> 2) & 1) << 8
+                    | ((code >> 3) & 1) << 12;
+        }
+    }
+
+    private WinLines() {
+    }
+
+    private static int sq(int row, int col) {
+        return BitBoard.square(row, col);
+    }
+
+    private static int add(int line, VictoryCheck.WinPosition position, int index, int s0, int s1, int s2, int s3) {
+        SQUARES[line] = new int[]{s0, s1, s2, s3};
+        MASKS[line] = (1 << s0) | (1 << s1) | (1 << s2) | (1 << s3);
+        POSITIONS[line] = position;
+        INDICES[line] = index;
+        for (int s : SQUARES[line]) {
+            CELL_LINES[s] |= 1 << line;
+        }
+        return line + 1;
+    }
+
+    // Maschera (bit l = linea l) delle linee abilitate dai sei flag di VictoryCheck
+    public static int linesFor(boolean rows, boolean columns, boolean diagonals,
+                               boolean squares2x2, boolean squares3x3, boolean square4x4) {
+        int mask = 0;
+        for (int l = 0; l < COUNT; l++) {
+            boolean enabled;
+            switch (POSITIONS[l]) {
+                case ROW: enabled = rows; break;
+                case COLUMN: enabled = columns; break;
+                case DIAGONAL: enabled = diagonals; break;
+                case SQUARE_2x2: enabled = squares2x2; break;
+                case SQUARE_3x3: enabled = squares3x3; break;
+                default: enabled = square4x4; break;
+            }
+            if (enabled) mask |= 1 << l;
+        }
+        return mask;
+    }
+
+    // Attributi comuni ai 4 pezzi della linea (bit k = attributo k uguale per tutti), la linea deve essere piena.
+    // Due pezzi hanno lo stesso attributo k se il bit k del loro XOR è 0.
+    public static int commonAttributes(long cells, int line) {
+        int[] s = SQUARES[line];
+        int a = (int) (cells >>> (s[0] << 2)) & 0xF;
+        int b = (int) (cells >>> (s[1] << 2)) & 0xF;
+        int c = (int) (cells >>> (s[2] << 2)) & 0xF;
+        int d = (int) (cells >>> (s[3] << 2)) & 0xF;
+        return ~((a ^ b) | (a ^ c) | (a ^ d)) & 0xF;
+    }
+
+    // La linea con questo stato è piena e ha un attributo in comune?
+    public static boolean isQuarto(int state) {
+        return (state & ~0xFFFF) == FOUR_PIECES && hasZeroOrFourNibble(state & 0xFFFF);
+    }
+
+    // Piazzare il pezzo con questo codice nell'ultima casella libera della linea farebbe Quarto?
+    public static boolean completesQuarto(int state, int code) {
+        return (state & ~0xFFFF) == THREE_PIECES && hasZeroOrFourNibble((state + STATE_INCREMENT[code]) & 0xFFFF);
+    }
+
+    // Maschera dei codici dei pezzi che completerebbero un Quarto su questa linea (0 se non ha esattamente 3 pezzi)
+    public static int completingPieces(int state) {
+        if ((state & ~0xFFFF) != THREE_PIECES) return 0;
+        int pieces = 0;
+        for (int k = 0; k < 4; k++) {
+            int counter = (state >>> (k << 2)) & 0xF;
+            if (counter == 3) {
+                pieces |= PIECES_WITH_BIT[k];
+            } else if (counter == 0) {
+                pieces |= ~PIECES_WITH_BIT[k] & 0xFFFF;
+            }
+        }
+        return pieces;
+    }
+
+    // Vero se uno dei 4 contatori vale 0 (tutti i bit a 0) o 4 (tutti i bit a 1).
+    // I contatori valgono al massimo 4, quindi basta il classico test "nibble a zero" su x e su x ^ 0x4444.
+    private static boolean hasZeroOrFourNibble(int counters) {
+        int fours = counters ^ 0x4444;
+        return ((((counters - 0x1111) & ~counters) | ((fours - 0x1111) & ~fours)) & 0x8888) != 0;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.myquarto;
+
+/**
+ * Questa classe contiene le chiavi di Zobrist per le posizioni di Quarto!
+ * Ogni coppia (casella, pezzo) e ogni possibile pezzo "in mano" (quello da piazzare) ha una chiave casuale a 64 bit:
+ * l'hash di una posizione è lo XOR delle chiavi dei pezzi sulla scacchiera e di quella del pezzo in mano.
+ * Piazzare o togliere un pezzo aggiorna l'hash con un solo XOR (la BitBoard lo mantiene da sola).
+ * Le chiavi sono generate con un seme fisso, quindi l'hash di una posizione è lo stesso in ogni esecuzione.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * pieceOnSquare(int square, int code)
+ * hand(int code)
+ * hash(long cells, int occupied)
+ */
+public final class Zobrist {
+    private static final long[] PIECE_ON_SQUARE = new long[BitBoard.SQUARES * 16]; // indice: casella * 16 + codice
+    private static final long[] HAND = new long[17]; // indice: codice + 1, HAND[0] = nessun pezzo in mano
+
+    static {
+        long state = 0x51A7C0DEL; // seme fisso
+        for (int i = 0; i < PIECE_ON_SQUARE.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            PIECE_ON_SQUARE[i] = mix(state);
+        }
+        for (int i = 1; i < HAND.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            HAND[i] = mix(state);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    // Funzione di mescolamento di SplitMix64
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static long pieceOnSquare(int square, int code) {
+        return PIECE_ON_SQUARE[(square << 4) | code];
+    }
+
+    // Chiave del pezzo in mano, code = -1 se nessuno
+    public static long hand(int code) {
+        return HAND[code + 1];
+    }
+
+    // Hash della sola scacchiera calcolato da zero
+    public static long hash(long cells, int occupied) {
+        long hash = 0L;
+        for (int squares = occupied; squares != 0; squares &= squares - 1) {
+            int square = Integer.numberOfTrailingZeros(squares);
+            hash ^= pieceOnSquare(square, (int) (cells >>> (square << 2)) & 0xF);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.myquarto.ai;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Questa classe esegue il lavoro pesante dei motori (mossa del computer, suggerimenti, analisi) fuori dal thread
+ * della UI: un numero fisso di thread e una coda limitata, così troppe richieste vengono rifiutate invece di
+ * accumularsi. Il risultato di ogni Task viene consegnato sul callbackExecutor (nell'app il thread principale).
+ *
+ * Un Task annullato con cancel() non consegna mai il risultato, purché cancel() venga chiamato sullo stesso
+ * thread del callbackExecutor. Se è ancora in coda viene tolto, se è in esecuzione il suo motore viene fermato
+ * con QuartoEngine.stop() e smette subito di consumare CPU.
+ * I motori non sono thread-safe: i Task dello stesso motore vengono eseguiti uno alla volta (lock sul motore),
+ * e lo stop() di un Task annullato non può mai arrivare alla ricerca del Task successivo.
+ * Con submitStreaming la ricerca consegna anche risultati parziali (per esempio una profondità alla volta),
+ * sullo stesso callbackExecutor, nell'ordine in cui sono stati pubblicati e mai dopo cancel().
+ *
+ * Prima di ogni ricerca, sotto il lock del motore, viene chiamato QuartoEngine.resetStop(): uno stop() arrivato
+ * dopo l'avvio del Task ma prima che il motore inizi davvero a cercare resta valido e la ricerca si ferma subito.
+ * Gli errori non arrivano mai come eccezioni sul callbackExecutor: un'eccezione della ricerca, o un Task rifiutato
+ * perché la coda è piena, vengono consegnati al callback failure (una RejectedExecutionException nel secondo caso),
+ * sempre sul callbackExecutor e mai dopo cancel(). Con failure null l'errore viene ignorato.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * submit(QuartoEngine engine, Callable<T> search, Callback<T> callback, Callback<Exception> failure)
+ * submitStreaming(QuartoEngine engine, StreamingSearch<T, P> search, Callback<P> progress, Callback<T> callback,
+ *                 Callback<Exception> failure)
+ * cancelAll()
+ * shutdown()
+ * Task: cancel(), isCancelled(), isDone()
+ */
+public final class EngineExecutor {
+
+    @FunctionalInterface
+    public interface Callback<T> {
+        void onResult(T result);
+    }
+
+    // Ricerca che pubblica risultati parziali con publish prima di restituire quello finale
+    @FunctionalInterface
+    public interface StreamingSearch<T, P> {
+        T run(Callback<P> publish) throws Exception;
+    }
+
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int DONE = 2;
+    private static final int CANCELLED = 3;
+
+    private final ThreadPoolExecutor pool;
+    private final Executor callbackExecutor;
+    private final Set<Task<?>> liveTasks = ConcurrentHashMap.newKeySet();
+
+    // threads: thread di lavoro; queueCapacity: Task che possono attendere un thread libero
+    public EngineExecutor(int threads, int queueCapacity, Executor callbackExecutor) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Servono almeno un thread e un posto in coda.");
+        }
+        if (callbackExecutor == null) {
+            throw new IllegalArgumentException("L'executor dei risultati non può essere null.");
+        }
+        this.callbackExecutor = callbackExecutor;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "quarto-engine-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1); // la UI ha sempre la precedenza
+            return thread;
+        });
+    }
+
+    // search: il lavoro da fare, di solito una findMove su engine; engine: il motore usato da search,
+    // fermato se il Task viene annullato (null se search non usa un motore)
+    // failure: riceve l'eccezione della ricerca o il rifiuto per coda piena (null = errore ignorato)
+    public <T> Task<T> submit(QuartoEngine engine, Callable<T> search, Callback<T> callback,
+                              Callback<Exception> failure) {
+        Task<T> task = new Task<>(engine, callback, failure);
+        task.search = search;
+        return execute(task);
+    }
+
+    // progress: riceve sul callbackExecutor ogni risultato parziale pubblicato da search
+    public <T, P> Task<T> submitStreaming(QuartoEngine engine, StreamingSearch<T, P> search,
+                                          Callback<P> progress, Callback<T> callback, Callback<Exception> failure) {
+        Task<T> task = new Task<>(engine, callback, failure);
+        task.search = () -> search.run(partial -> task.deliver(progress, partial));
+        return execute(task);
+    }
+
+    // Un Task rifiutato non parte: il rifiuto arriva a failure come per un errore della ricerca
+    private <T> Task<T> execute(Task<T> task) {
+        liveTasks.add(task);
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            liveTasks.remove(task);
+            if (task.state.compareAndSet(QUEUED, DONE)) task.fail(e);
+        }
+        return task;
+    }
+
+    // Annulla tutti i Task in coda o in esecuzione (nuova partita, abbandono)
+    public void cancelAll() {
+        for (Task<?> task : liveTasks) {
+            task.cancel();
+        }
+    }
+
+    // Annulla tutto e ferma i thread; l'istanza non va più usata
+    public void shutdown() {
+        cancelAll();
+        pool.shutdownNow();
+    }
+
+    public final class Task<T> implements Runnable {
+        private final QuartoEngine engine;
+        private final Callback<T> callback;
+        private final Callback<Exception> failure;
+        private Callable<T> search; // impostata prima di execute, che la rende visibile al thread di lavoro
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private final CountDownLatch stopDelivered = new CountDownLatch(1); // aperto da cancel() dopo engine.stop()
+
+        private Task(QuartoEngine engine, Callback<T> callback, Callback<Exception> failure) {
+            this.engine = engine;
+            this.callback = callback;
+            this.failure = failure;
+        }
+
+        @Override
+        public void run() {
+            Object lock = engine != null ? engine : this;
+            synchronized (lock) {
+                // Prima del passaggio a RUNNING: da qui in poi uno stop() di cancel() non può più essere azzerato
+                if (engine != null) engine.resetStop();
+                if (!state.compareAndSet(QUEUED, RUNNING)) return;
+                T result;
+                try {
+                    result = search.call();
+                } catch (Exception e) {
+                    liveTasks.remove(this);
+                    if (state.compareAndSet(RUNNING, DONE)) {
+                        fail(e);
+                    } else {
+                        awaitStop();
+                    }
+                    return;
+                }
+                liveTasks.remove(this);
+                if (!state.compareAndSet(RUNNING, DONE)) {
+                    awaitStop(); // annullato durante la ricerca: lo stop() deve colpire questa, non la prossima
+                    return;
+                }
+                callbackExecutor.execute(() -> {
+                    if (state.get() == DONE) callback.onResult(result);
+                });
+            }
+        }
+
+        // Il risultato non verrà consegnato; se la ricerca è in corso il motore viene fermato
+        public void cancel() {
+            int previous = state.getAndSet(CANCELLED);
+            liveTasks.remove(this);
+            if (previous == QUEUED) {
+                pool.remove(this);
+            } else if (previous == RUNNING) {
+                if (engine != null) engine.stop();
+                stopDelivered.countDown();
+            }
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        // La ricerca è finita e il risultato (o l'errore) è stato, o sta per essere, consegnato
+        public boolean isDone() {
+            return state.get() == DONE;
+        }
+
+        // Risultato parziale: consegnato solo se nel frattempo il Task non è stato annullato
+        private <P> void deliver(Callback<P> progress, P partial) {
+            callbackExecutor.execute(() -> {
+                if (state.get() != CANCELLED) progress.onResult(partial);
+            });
+        }
+
+        private void fail(Exception e) {
+            callbackExecutor.execute(() -> {
+                if (state.get() == DONE && failure != null) failure.onResult(e);
+            });
+        }
+
+        // Attesa bloccante (senza consumare CPU): cancel() ha già cambiato stato e sta per chiamare stop()
+        private void awaitStop() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    stopDelivered.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true; // shutdownNow(): si aspetta comunque lo stop, poi si ripristina l'interruzione
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.myquarto.ai;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.VictoryCheck;
+
+import java.util.Arrays;
+
+/**
+ * Motore che risponde con le tabelle precalcolate (libro delle aperture) quando
+ * la posizione è coperta, con una risposta istantanea, e passa a un altro motore in tutti gli altri casi.
+ * Le tabelle generate con condizioni di vittoria diverse da quelle della partita vengono ignorate.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * findMove(BitBoard position, int hand, int available, long timeBudgetMillis)
+ * stop()
+ * resetStop()
+ * getNodeCount()
+ * shutdown()
+ */
+public class LookupEngine implements QuartoEngine {
+    private final PositionTable[] tables;
+    private final QuartoEngine fallback;
+    private long nodes;
+
+    public LookupEngine(VictoryCheck rules, QuartoEngine fallback, PositionTable... tables) {
+        int usable = 0;
+        PositionTable[] matching = new PositionTable[tables.length];
+        for (PositionTable table : tables) {
+            if (table != null && table.getEnabledLines() == rules.getEnabledLines()) {
+                matching[usable++] = table;
+            }
+        }
+        this.tables = Arrays.copyOf(matching, usable);
+        this.fallback = fallback;
+    }
+
+    @Override
+    public QuartoAI.Move findMove(BitBoard position, int hand, int available, long timeBudgetMillis) {
+        for (PositionTable table : tables) {
+            QuartoAI.Move move = table.lookup(position, hand);
+            if (move != null) {
+                nodes = 0;
+                return move;
+            }
+        }
+        QuartoAI.Move move = fallback.findMove(position, hand, available, timeBudgetMillis);
+        nodes = fallback.getNodeCount();
+        return move;
+    }
+
+    @Override
+    public void stop() {
+        fallback.stop();
+    }
+
+    @Override
+    public void resetStop() {
+        fallback.resetStop();
+    }
+
+    @Override
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    @Override
+    public void shutdown() {
+        fallback.shutdown();
+    }
+}
@@ -0,0 +1,393 @@
+package com.example.myquarto.ai;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.VictoryCheck;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Questa classe è il motore Monte Carlo Tree Search (UCT) del computer, alternativo a QuartoAI.
+ * In apertura le mosse (casella x pezzo da dare) sono fino a 16 x 15 = 240 per turno e l'alpha-beta
+ * non arriva in profondità: MCTS invece stima ogni mossa giocando molte partite simulate fino alla fine
+ * e concentra le simulazioni sulle mosse più promettenti (formula UCT con costante di esplorazione configurabile).
+ *
+ * Le partite simulate lavorano sulla BitBoard senza allocazioni: si vince subito se il pezzo in mano fa Quarto,
+ * altrimenti si piazza su una casella a caso e si dà un pezzo a caso tra quelli che non fanno vincere subito
+ * l'avversario (se ce ne sono). L'albero di ogni thread è fatto di array preallocati (capacity nodi);
+ * quando è pieno l'albero smette di crescere ma le simulazioni continuano dalle foglie.
+ *
+ * Parallelizzazione alla radice: ogni thread costruisce il proprio albero della stessa posizione
+ * e alla fine le statistiche dei figli della radice vengono sommate. Si gioca la mossa più visitata.
+ * La ricerca si ferma allo scadere del tempo o dopo maxPlayouts simulazioni (0 = solo il tempo).
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * findMove(BitBoard position, int hand, int available, long timeBudgetMillis)
+ * stop()
+ * resetStop()
+ * getNodeCount()
+ * getPlayoutsPerSecond()
+ * shutdown()
+ */
+public class MonteCarloAI implements QuartoEngine {
+    public static final double DEFAULT_EXPLORATION = 0.7;
+    public static final int DEFAULT_CAPACITY = 1 << 18;
+
+    // Esito di un nodo terminale per chi ha fatto la mossa che porta al nodo
+    private static final byte NOT_TERMINAL = 0;
+    private static final byte WIN = 1;
+    private static final byte DRAW = 2;
+
+    private final VictoryCheck rules;
+    private final double exploration;
+    private final long maxPlayouts;
+    private final Tree[] trees;
+    private final ExecutorService helperPool;
+    private volatile boolean stopRequested;
+    private long playouts;
+    private double playoutsPerSecond;
+
+    // Un thread, esplorazione e capacità di default, limite solo di tempo
+    public MonteCarloAI(VictoryCheck rules) {
+        this(rules, 1, DEFAULT_EXPLORATION, 0, DEFAULT_CAPACITY);
+    }
+
+    // threads: thread di simulazione (quello chiamante compreso); exploration: costante C della formula UCT;
+    // maxPlayouts: simulazioni per mossa (0 = fino allo scadere del tempo); capacity: nodi dell'albero per thread
+    public MonteCarloAI(VictoryCheck rules, int threads, double exploration, long maxPlayouts, int capacity) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Serve almeno un thread di ricerca.");
+        }
+        if (capacity < 256) {
+            throw new IllegalArgumentException("L'albero deve avere almeno 256 nodi.");
+        }
+        this.rules = rules;
+        this.exploration = exploration;
+        this.maxPlayouts = maxPlayouts;
+        this.trees = new Tree[threads];
+        for (int i = 0; i < threads; i++) {
+            trees[i] = new Tree(capacity, 0x9E3779B97F4A7C15L * (i + 1) ^ System.nanoTime());
+        }
+        this.helperPool = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "quarto-mcts-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public QuartoAI.Move findMove(BitBoard position, int hand, int available, long timeBudgetMillis) {
+        long start = System.nanoTime();
+        long deadline = start + timeBudgetMillis * 1_000_000L;
+
+        if (hand >= 0) {
+            int winningSquare = rules.winningSquare(position, hand);
+            if (winningSquare >= 0) {
+                playouts = 0;
+                return new QuartoAI.Move(winningSquare, -1, true, QuartoAI.WIN_SCORE - 1, 0, 0);
+            }
+        }
+
+        List<Future<?>> running = new ArrayList<>(trees.length - 1);
+        for (int i = 1; i < trees.length; i++) {
+            Tree tree = trees[i];
+            long budget = playoutBudget(i);
+            running.add(helperPool.submit(() -> tree.search(position, hand, available, deadline, budget)));
+        }
+        trees[0].search(position, hand, available, deadline, playoutBudget(0));
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stop();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Errore in un thread di ricerca.", e.getCause());
+            }
+        }
+
+        // Somma le statistiche della radice: i figli sono generati nello stesso ordine in ogni albero
+        Tree main = trees[0];
+        int first = main.firstChild[0];
+        int count = main.childCount[0];
+        int best = 0;
+        long bestVisits = -1;
+        double bestReward = 0;
+        int maxDepth = 0;
+        playouts = 0;
+        for (Tree tree : trees) {
+            playouts += tree.playouts;
+            maxDepth = Math.max(maxDepth, tree.maxDepth);
+        }
+        for (int c = 0; c < count; c++) {
+            long visits = 0;
+            double reward = 0;
+            for (Tree tree : trees) {
+                visits += tree.visits[tree.firstChild[0] + c];
+                reward += tree.reward[tree.firstChild[0] + c];
+            }
+            if (visits > bestVisits) {
+                best = c;
+                bestVisits = visits;
+                bestReward = reward;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        playoutsPerSecond = seconds > 0 ? playouts / seconds : 0;
+
+        int move = main.move[first + best];
+        boolean wins = main.terminal[first + best] == WIN;
+        // Punteggio: risultato medio atteso in millesimi (da -1000 a 1000, 0 = patta), non è un risultato dimostrato
+        int score = wins ? QuartoAI.WIN_SCORE - 1
+                : bestVisits == 0 ? 0 : (int) Math.round((bestReward / bestVisits * 2 - 1) * (QuartoAI.WIN_SCORE - BitBoard.SQUARES * 2 - 1));
+        return new QuartoAI.Move(moveSquare(move), movePiece(move), wins, score, maxDepth, playouts);
+    }
+
+    private long playoutBudget(int treeIndex) {
+        if (maxPlayouts <= 0) return Long.MAX_VALUE;
+        long share = maxPlayouts / trees.length;
+        return treeIndex == 0 ? share + maxPlayouts % trees.length : share;
+    }
+
+    @Override
+    public void stop() {
+        stopRequested = true;
+    }
+
+    @Override
+    public void resetStop() {
+        stopRequested = false;
+    }
+
+    // Simulazioni (di tutti i thread) dell'ultima findMove
+    @Override
+    public long getNodeCount() {
+        return playouts;
+    }
+
+    public double getPlayoutsPerSecond() {
+        return playoutsPerSecond;
+    }
+
+    @Override
+    public void shutdown() {
+        stop();
+        if (helperPool != null) helperPool.shutdownNow();
+    }
+
+    // Mossa impacchettata in uno short: bit 0-4 casella + 1, bit 5-9 pezzo da dare + 1
+    private static short packMove(int square, int piece) {
+        return (short) ((square + 1) | (piece + 1) << 5);
+    }
+
+    private static int moveSquare(int move) {
+        return (move & 0x1F) - 1;
+    }
+
+    private static int movePiece(int move) {
+        return ((move >> 5) & 0x1F) - 1;
+    }
+
+    // Albero di un thread: nodi in array paralleli, il nodo 0 è la radice.
+    // reward[n] = somma dei risultati (1 vittoria, 0.5 patta, 0 sconfitta) per chi ha fatto la mossa che porta a n
+    private final class Tree {
+        final int[] firstChild;
+        final short[] childCount;
+        final short[] move;
+        final byte[] terminal;
+        final int[] visits;
+        final float[] reward;
+        final int[] path = new int[BitBoard.SQUARES + 2];
+        final BitBoard board = new BitBoard();
+        int size;
+        long random;
+        long playouts;
+        int maxDepth;
+
+        Tree(int capacity, long seed) {
+            firstChild = new int[capacity];
+            childCount = new short[capacity];
+            move = new short[capacity];
+            terminal = new byte[capacity];
+            visits = new int[capacity];
+            reward = new float[capacity];
+            random = seed == 0 ? 1 : seed;
+        }
+
+        void search(BitBoard position, int rootHand, int rootAvailable, long deadline, long budget) {
+            size = 1;
+            childCount[0] = 0;
+            visits[0] = 0;
+            reward[0] = 0;
+            terminal[0] = NOT_TERMINAL;
+            playouts = 0;
+            maxDepth = 0;
+            board.copyFrom(position);
+            expand(0, rootHand, rootAvailable);
+
+            while (playouts < budget && !stopRequested) {
+                if ((playouts & 0xFF) == 0 && System.nanoTime() >= deadline) break;
+                board.copyFrom(position);
+                int hand = rootHand;
+                int available = rootAvailable;
+
+                // Selezione: si scende con UCT finché si trova un nodo non espanso o terminale
+                int node = 0;
+                int depth = 0;
+                path[0] = 0;
+                while (childCount[node] > 0) {
+                    node = selectChild(node);
+                    int m = move[node];
+                    int square = moveSquare(m);
+                    int piece = movePiece(m);
+                    if (square >= 0) board.place(square, hand);
+                    hand = piece;
+                    if (piece >= 0) available &= ~(1 << piece);
+                    path[++depth] = node;
+                    if (terminal[node] != NOT_TERMINAL) break;
+                }
+
+                // Espansione e simulazione: result è il risultato per chi deve muovere nello stato raggiunto
+                double result;
+                if (terminal[node] == WIN) {
+                    result = 0;
+                } else if (terminal[node] == DRAW) {
+                    result = 0.5;
+                } else {
+                    if (visits[node] > 0 && expand(node, hand, available)) {
+                        node = selectChild(node);
+                        int m = move[node];
+                        int square = moveSquare(m);
+                        int piece = movePiece(m);
+                        if (square >= 0) board.place(square, hand);
+                        hand = piece;
+                        if (piece >= 0) available &= ~(1 << piece);
+                        path[++depth] = node;
+                    }
+                    result = terminal[node] == WIN ? 0 : terminal[node] == DRAW ? 0.5 : playout(hand, available);
+                }
+
+                // Retropropagazione: ogni mossa passa il turno all'altro giocatore
+                double forMover = 1 - result;
+                for (int i = depth; i >= 0; i--) {
+                    visits[path[i]]++;
+                    reward[path[i]] += (float) forMover;
+                    forMover = 1 - forMover;
+                }
+                maxDepth = Math.max(maxDepth, depth);
+                playouts++;
+            }
+        }
+
+        private int selectChild(int node) {
+            int first = firstChild[node];
+            int count = childCount[node];
+            double logParent = Math.log(Math.max(1, visits[node]));
+            int best = first;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int c = first; c < first + count; c++) {
+                if (visits[c] == 0) return c; // ogni figlio viene provato almeno una volta
+                double value = reward[c] / visits[c] + exploration * Math.sqrt(logParent / visits[c]);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = c;
+                }
+            }
+            return best;
+        }
+
+        // Crea i figli del nodo per lo stato (board, hand, available). false se l'albero è pieno.
+        private boolean expand(int node, int hand, int available) {
+            int first = size;
+            if (hand < 0) {
+                // Inizio partita: si sceglie solo il pezzo da dare
+                if (first + Integer.bitCount(available) > firstChild.length) return false;
+                for (int codes = available; codes != 0; codes &= codes - 1) {
+                    addChild(packMove(-1, Integer.numberOfTrailingZeros(codes)), NOT_TERMINAL);
+                }
+            } else {
+                int winningSquare = rules.winningSquare(board, hand);
+                if (winningSquare >= 0) {
+                    // Con una vittoria a disposizione le altre mosse non servono
+                    if (first + 1 > firstChild.length) return false;
+                    addChild(packMove(winningSquare, -1), WIN);
+                } else {
+                    int empty = ~board.getOccupied() & BitBoard.FULL_MASK;
+                    if (first + Integer.bitCount(empty) * Math.max(1, Integer.bitCount(available)) > firstChild.length) {
+                        return false;
+                    }
+                    for (int squares = empty; squares != 0; squares &= squares - 1) {
+                        int square = Integer.numberOfTrailingZeros(squares);
+                        if (available == 0) {
+                            addChild(packMove(square, -1), DRAW); // ultimo pezzo, nessun Quarto: patta
+                            continue;
+                        }
+                        board.place(square, hand);
+                        int safe = available & ~rules.winningPieces(board);
+                        board.remove(square);
+                        for (int codes = safe != 0 ? safe : available; codes != 0; codes &= codes - 1) {
+                            addChild(packMove(square, Integer.numberOfTrailingZeros(codes)), NOT_TERMINAL);
+                        }
+                    }
+                }
+            }
+            firstChild[node] = first;
+            childCount[node] = (short) (size - first);
+            return true;
+        }
+
+        private void addChild(short childMove, byte childTerminal) {
+            int child = size++;
+            move[child] = childMove;
+            terminal[child] = childTerminal;
+            childCount[child] = 0;
+            visits[child] = 0;
+            reward[child] = 0;
+        }
+
+        // Partita simulata fino alla fine; restituisce il risultato per chi deve piazzare hand
+        private double playout(int hand, int available) {
+            int mover = 0; // 0 = chi deve muovere all'inizio della simulazione
+            if (hand < 0) {
+                hand = randomPiece(available);
+                available &= ~(1 << hand);
+                mover = 1;
+            }
+            while (true) {
+                if (rules.winningSquare(board, hand) >= 0) {
+                    return mover == 0 ? 1 : 0;
+                }
+                int empty = ~board.getOccupied() & BitBoard.FULL_MASK;
+                random = next(random);
+                board.place(BitBoard.nthSetBit(empty, (int) Long.remainderUnsigned(random, Integer.bitCount(empty))), hand);
+                if (available == 0) {
+                    return 0.5;
+                }
+                int safe = available & ~rules.winningPieces(board);
+                hand = randomPiece(safe != 0 ? safe : available);
+                available &= ~(1 << hand);
+                mover ^= 1;
+            }
+        }
+
+        private int randomPiece(int pieces) {
+            random = next(random);
+            return BitBoard.nthSetBit(pieces, (int) Long.remainderUnsigned(random, Integer.bitCount(pieces)));
+        }
+    }
+
+    // xorshift64: generatore senza allocazioni, un'istanza per thread
+    private static long next(long state) {
+        state ^= state << 13;
+        state ^= state >>> 7;
+        state ^= state << 17;
+        return state;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.myquarto.ai;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.Canonicalizer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Questa classe è il libro delle aperture: per le prime mosse della partita, dove la ricerca costa di più
+ * e serve di meno, contiene la mossa scelta offline da una ricerca lunga (tools/OpeningBookGenerator)
+ * e la restituisce in pochi microsecondi, senza consumare il tempo del ChessClock.
+ *
+ * Le posizioni sono in forma canonica e le voci, a larghezza fissa, sono ordinate
+ * per chiave: la ricerca è binaria e la mossa viene riportata sulla posizione reale con unmapSquare/unmapPiece.
+ * Il file è piccolo (qualche KB) e nell'app sta negli asset, quindi viene letto tutto in memoria.
+ *
+ * Formato (big-endian):
+ * intestazione di 16 byte: MAGIC, linee abilitate, massimo di pezzi sulla scacchiera, numero di voci;
+ * voci di 16 byte ordinate per chiave: chiave (8), casella + 1 (1), pezzo da dare + 1 (1), punteggio (2),
+ * maschera di occupazione canonica (2), profondità della ricerca (1), riservato (1).
+ * Non è thread-safe (il Canonicalizer interno ricorda l'ultima trasformazione).
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * read(InputStream in)
+ * lookup(BitBoard board, int hand)
+ * getEnabledLines(), getMaxPieces(), size()
+ * writeHeader(ByteBuffer buffer, int enabledLines, int maxPieces, int count)
+ * writeRecord(ByteBuffer buffer, long key, int square, int piece, int score, int occupied, int depth)
+ */
+public final class OpeningBook implements PositionTable {
+    public static final int MAGIC = 0x514F4231; // "QOB1"
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 16;
+
+    private final ByteBuffer buffer;
+    private final int enabledLines;
+    private final int maxPieces;
+    private final int count;
+    private final Canonicalizer canonicalizer;
+
+    private OpeningBook(ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Il file non è un libro delle aperture di Quarto.");
+        }
+        this.buffer = buffer;
+        this.enabledLines = buffer.getInt(4);
+        this.maxPieces = buffer.getInt(8);
+        this.count = buffer.getInt(12);
+        if ((long) HEADER_BYTES + (long) count * RECORD_BYTES > buffer.capacity()) {
+            throw new IllegalArgumentException("Libro delle aperture troncato.");
+        }
+        this.canonicalizer = new Canonicalizer(enabledLines);
+    }
+
+    // Legge tutto il libro (per esempio da AssetManager.open)
+    public static OpeningBook read(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int n;
+        while ((n = in.read(chunk)) > 0) {
+            bytes.write(chunk, 0, n);
+        }
+        return new OpeningBook(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    // La mossa del libro per la posizione, null se la posizione non c'è
+    @Override
+    public QuartoAI.Move lookup(BitBoard board, int hand) {
+        if (BitBoard.SQUARES - board.getEmptyCount() > maxPieces) return null;
+        long key = canonicalizer.canonicalize(board, hand);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int offset = HEADER_BYTES + mid * RECORD_BYTES;
+            long midKey = buffer.getLong(offset);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                if ((buffer.getShort(offset + 12) & 0xFFFF) != canonicalizer.getCanonicalOccupied()) {
+                    return null; // collisione della chiave a 64 bit
+                }
+                int square = buffer.get(offset + 8) - 1;
+                int piece = buffer.get(offset + 9) - 1;
+                int score = buffer.getShort(offset + 10);
+                int depth = buffer.get(offset + 14);
+                return new QuartoAI.Move(square < 0 ? -1 : canonicalizer.unmapSquare(square),
+                        piece < 0 ? -1 : canonicalizer.unmapPiece(piece),
+                        score == QuartoAI.WIN_SCORE - 1, score, depth, 0);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int getEnabledLines() {
+        return enabledLines;
+    }
+
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public static void writeHeader(ByteBuffer buffer, int enabledLines, int maxPieces, int count) {
+        buffer.putInt(MAGIC).putInt(enabledLines).putInt(maxPieces).putInt(count);
+    }
+
+    public static void writeRecord(ByteBuffer buffer, long key, int square, int piece, int score, int occupied, int depth) {
+        buffer.putLong(key)
+                .put((byte) (square + 1))
+                .put((byte) (piece + 1))
+                .putShort((short) score)
+                .putShort((short) occupied)
+                .put((byte) depth)
+                .put((byte) 0);
+    }
+}
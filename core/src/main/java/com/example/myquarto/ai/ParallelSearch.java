@@ -0,0 +1,111 @@
+package com.example.myquarto.ai;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.VictoryCheck;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Questa classe distribuisce la ricerca di QuartoAI su più thread con lo schema Lazy SMP.
+ * Tutti i thread cercano la stessa posizione con l'approfondimento iterativo e condividono una sola
+ * TranspositionTable senza lock: il thread principale gioca la mossa, gli aiutanti partono da mosse e
+ * profondità diverse e riempiono la tabella con risultati che il principale trova già pronti.
+ * Quando il principale finisce (tempo scaduto o risultato dimostrato) gli aiutanti vengono fermati.
+ *
+ * Con threads = 1 è equivalente a una QuartoAI normale.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * findMove(BitBoard position, int hand, int available, long timeBudgetMillis)
+ * getNodeCount()
+ * stop()
+ * resetStop()
+ * shutdown()
+ */
+public class ParallelSearch implements QuartoEngine {
+    private final QuartoAI main;
+    private final QuartoAI[] helpers;
+    private final ExecutorService helperPool;
+    private long nodeCount;
+
+    // threads: numero totale di thread di ricerca (principale compreso)
+    public ParallelSearch(VictoryCheck rules, int maxDepth, int threads, TranspositionTable sharedTable) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Serve almeno un thread di ricerca.");
+        }
+        this.main = new QuartoAI(rules, maxDepth, sharedTable, 0);
+        this.helpers = new QuartoAI[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new QuartoAI(rules, maxDepth, sharedTable, i + 1);
+        }
+        this.helperPool = helpers.length == 0 ? null : Executors.newFixedThreadPool(helpers.length, runnable -> {
+            Thread thread = new Thread(runnable, "quarto-search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Stessi parametri di QuartoAI.findMove, la mossa è quella del thread principale
+    @Override
+    public QuartoAI.Move findMove(BitBoard position, int hand, int available, long timeBudgetMillis) {
+        List<Future<QuartoAI.Move>> running = new ArrayList<>(helpers.length);
+        final BitBoard snapshot = new BitBoard(position);
+        for (QuartoAI helper : helpers) {
+            helper.resetStop(); // fermati alla fine della ricerca precedente; il principale no, uno stop() esterno resta valido
+            running.add(helperPool.submit(() -> helper.findMove(snapshot, hand, available, timeBudgetMillis)));
+        }
+
+        QuartoAI.Move move = main.findMove(position, hand, available, timeBudgetMillis);
+        nodeCount = main.getNodeCount();
+
+        for (QuartoAI helper : helpers) {
+            helper.stop();
+        }
+        for (int i = 0; i < running.size(); i++) {
+            try {
+                running.get(i).get();
+                nodeCount += helpers[i].getNodeCount();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Errore in un thread di ricerca.", e.getCause());
+            }
+        }
+        return move;
+    }
+
+    // Nodi visitati da tutti i thread nell'ultima findMove
+    @Override
+    public long getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public void stop() {
+        main.stop();
+        for (QuartoAI helper : helpers) {
+            helper.stop();
+        }
+    }
+
+    @Override
+    public void resetStop() {
+        main.resetStop();
+        for (QuartoAI helper : helpers) {
+            helper.resetStop();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        stop();
+        if (helperPool != null) helperPool.shutdownNow();
+    }
+}
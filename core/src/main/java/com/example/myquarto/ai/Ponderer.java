@@ -0,0 +1,110 @@
+package com.example.myquarto.ai;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.VictoryCheck;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Questa classe fa pensare il computer durante il turno dell'avversario umano ("ponder").
+ *
+ * Il turno umano ha due metà. Mentre l'umano piazza il pezzo ricevuto, la scacchiera successiva non è nota:
+ * il motore cerca la mossa migliore dal punto di vista dell'umano e prende quella come previsione
+ * (casella e pezzo che l'umano darà). Mentre l'umano sceglie il pezzo da dare, la scacchiera è nota e resta
+ * da indovinare solo il pezzo: si cerca la risposta del computer a ogni pezzo che l'umano può dare,
+ * partendo da quello previsto, con lo stesso tempo che il computer userebbe nel suo turno.
+ * I pezzi che fanno vincere subito il computer vengono saltati: la risposta per loro è già istantanea.
+ *
+ * Le risposte complete restano in getReply: se l'umano dà un pezzo già cercato sulla stessa scacchiera, il computer
+ * risponde subito; se il pezzo dato è quello in ricerca in quel momento, con finishCurrent() la sessione completa
+ * solo quella ricerca e poi termina. Il lavoro fatto resta comunque nella TranspositionTable del motore. Una sessione annullata
+ * con stop() non pubblica più risposte (quelle interrotte non sarebbero affidabili).
+ * ponderPlacement e ponderHandOff vanno chiamati fuori dal thread della UI, gli altri metodi da qualsiasi thread.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * ponderPlacement(BitBoard position, int opponentHand, int available, long predictMillis, long replyMillis)
+ * ponderHandOff(BitBoard position, int available, int expectedPiece, long replyMillis)
+ * getReply(BitBoard position, int hand)
+ * isPondering(BitBoard position), isSearching(BitBoard position, int hand)
+ * finishCurrent()
+ * stop()
+ */
+public final class Ponderer {
+    private final QuartoEngine engine;
+    private final VictoryCheck rules;
+    private final AtomicReferenceArray<QuartoAI.Move> replies = new AtomicReferenceArray<>(BitBoard.SQUARES);
+    // Scacchiera (dopo la mossa dell'umano) a cui si riferiscono le risposte; occupied = -1 finché non è nota
+    private volatile long ponderedCells;
+    private volatile int ponderedOccupied = -1;
+    private volatile int searchingHand = -1;
+    private volatile boolean finishing;
+    private volatile boolean stopped;
+
+    // engine: lo stesso motore che giocherà la mossa, così anche le ricerche non usate riempiono la sua tabella
+    public Ponderer(QuartoEngine engine, VictoryCheck rules) {
+        this.engine = engine;
+        this.rules = rules;
+    }
+
+    // L'umano deve piazzare opponentHand su position: prevede la sua mossa, poi cerca le risposte a ogni pezzo
+    public void ponderPlacement(BitBoard position, int opponentHand, int available, long predictMillis, long replyMillis) {
+        QuartoAI.Move predicted = engine.findMove(position, opponentHand, available, predictMillis);
+        if (stopped || predicted.wins || predicted.square < 0 || predicted.pieceToGive < 0) {
+            return; // l'umano vince, la scacchiera si riempie o la sessione è già finita: niente da preparare
+        }
+        BitBoard next = new BitBoard(position);
+        next.place(predicted.square, opponentHand);
+        ponderHandOff(next, available, predicted.pieceToGive, replyMillis);
+    }
+
+    // L'umano ha piazzato e deve scegliere tra i pezzi di available: cerca la risposta a ciascuno,
+    // partendo da expectedPiece (-1 se non c'è una previsione)
+    public void ponderHandOff(BitBoard position, int available, int expectedPiece, long replyMillis) {
+        ponderedCells = position.getCells();
+        ponderedOccupied = position.getOccupied();
+        int candidates = available;
+        if (expectedPiece >= 0 && (available & (1 << expectedPiece)) != 0) {
+            ponder(position, expectedPiece, available, replyMillis);
+            candidates &= ~(1 << expectedPiece);
+        }
+        for (; candidates != 0 && !stopped && !finishing; candidates &= candidates - 1) {
+            ponder(position, Integer.numberOfTrailingZeros(candidates), available, replyMillis);
+        }
+    }
+
+    // La risposta già pronta se l'umano ha dato hand sulla scacchiera cercata, altrimenti null
+    public QuartoAI.Move getReply(BitBoard position, int hand) {
+        if (!isPondering(position)) return null;
+        return replies.get(hand);
+    }
+
+    // true se le risposte in preparazione sono per questa scacchiera
+    public boolean isPondering(BitBoard position) {
+        return ponderedOccupied == position.getOccupied() && ponderedCells == position.getCells();
+    }
+
+    // true se la risposta a hand su questa scacchiera è in ricerca proprio ora
+    public boolean isSearching(BitBoard position, int hand) {
+        return searchingHand == hand && isPondering(position);
+    }
+
+    // La ricerca in corso viene completata e pubblicata, le successive non partono
+    public void finishCurrent() {
+        finishing = true;
+    }
+
+    // Le ricerche successive non partono e quella in corso non viene pubblicata (il motore lo ferma chi lo usa)
+    public void stop() {
+        stopped = true;
+    }
+
+    private void ponder(BitBoard position, int hand, int available, long replyMillis) {
+        if (stopped || finishing || replies.get(hand) != null || rules.winningSquare(position, hand) >= 0) return;
+        searchingHand = hand;
+        QuartoAI.Move reply = engine.findMove(position, hand, available & ~(1 << hand), replyMillis);
+        if (!stopped) replies.set(hand, reply);
+        searchingHand = -1;
+    }
+}
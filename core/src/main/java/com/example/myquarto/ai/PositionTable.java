@@ -0,0 +1,22 @@
+package com.example.myquarto.ai;
+
+import com.example.myquarto.BitBoard;
+
+/**
+ * Tabella di posizioni già risolte offline (per esempio il libro delle aperture):
+ * restituisce la mossa migliore senza cercare, oppure null se la posizione non è nella tabella.
+ */
+
+/**
+ * I metodi presenti in questa interfaccia sono:
+ * lookup(BitBoard board, int hand)
+ * getEnabledLines()
+ */
+public interface PositionTable {
+
+    // hand: codice del pezzo da piazzare (-1 se c'è solo da scegliere il pezzo)
+    QuartoAI.Move lookup(BitBoard board, int hand);
+
+    // Linee vincenti con cui la tabella è stata generata (vale solo per le stesse regole)
+    int getEnabledLines();
+}
@@ -0,0 +1,431 @@
+package com.example.myquarto.ai;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.VictoryCheck;
+import com.example.myquarto.Zobrist;
+
+/**
+ * Questa classe è l'avversario computer di Quarto!
+ * Un turno di Quarto ha due metà: piazzare il pezzo ricevuto e scegliere il pezzo da dare all'avversario.
+ * Per l'IA una "mossa" è la coppia (casella, pezzo da dare) e la ricerca è un negamax con potatura
+ * alpha-beta e approfondimento iterativo: si cerca a profondità 1, 2, 3... finché non scade il tempo
+ * a disposizione, e si gioca la mossa migliore dell'ultima iterazione completata.
+ *
+ * La ricerca lavora su una copia BitBoard della posizione e sui codici a 4 bit dei pezzi,
+ * quindi può (e deve) girare fuori dal thread della UI.
+ * Le posizioni già valutate finiscono nella TranspositionTable (chiave: hash di Zobrist di scacchiera e pezzo in mano),
+ * che oltre a evitare di ricalcolarle fornisce la mossa da provare per prima.
+ * Non è thread-safe: un'istanza cerca una posizione alla volta, stop() può essere chiamato da qualsiasi thread.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * findMove(BitBoard position, int hand, int available, long timeBudgetMillis)
+ * analyze(BitBoard position, int hand, int available, long timeBudgetMillis, AnalysisListener listener)
+ * stop()
+ * resetStop()
+ * getNodeCount()
+ * timeBudgetMillis(long remainingMillis, int emptySquares, long maxMillis)
+ * safeMove(VictoryCheck rules, BitBoard position, int hand, int available)
+ */
+public class QuartoAI implements QuartoEngine {
+    public static final int WIN_SCORE = 1000; // vittoria al turno n (contando dalla radice, che è il turno 1) = WIN_SCORE - n
+    private static final int INFINITY = WIN_SCORE + 1;
+    private static final int TIME_CHECK_INTERVAL = 1023; // controlla l'orologio ogni 1024 nodi
+
+    // Risultato della ricerca
+    public static final class Move {
+        public final int square;      // casella dove piazzare, -1 se c'è solo da scegliere il pezzo (inizio partita)
+        public final int pieceToGive; // codice del pezzo da dare, -1 se la mossa vince o la scacchiera è piena
+        public final boolean wins;    // piazzare sulla casella fa Quarto
+        public final int score;
+        public final int depth;       // profondità (in turni) dell'ultima iterazione completata
+        public final long nodes;
+
+        public Move(int square, int pieceToGive, boolean wins, int score, int depth, long nodes) {
+            this.square = square;
+            this.pieceToGive = pieceToGive;
+            this.wins = wins;
+            this.score = score;
+            this.depth = depth;
+            this.nodes = nodes;
+        }
+    }
+
+    // Analisi per i suggerimenti: dopo ogni profondità completata riceve i punteggi di tutte le mosse
+    public interface AnalysisListener {
+        // scores: copia indicizzata per casella (o per codice del pezzo); complete: tutti i punteggi sono dimostrati
+        void onIteration(int depth, int[] scores, boolean complete);
+    }
+
+    public static final int NO_SCORE = Integer.MIN_VALUE; // casella occupata o pezzo non disponibile
+
+    private static final int DEFAULT_TABLE_MEGABYTES = 4;
+
+    private final VictoryCheck rules;
+    private final int maxDepth;
+    private final TranspositionTable table;
+    private final BitBoard board = new BitBoard();
+    // Per la ricerca parallela (ParallelSearch): gli aiutanti (helperIndex > 0) condividono la tabella,
+    // non la "invecchiano" e partono da mosse e profondità diverse per esplorare parti diverse dell'albero
+    private final int helperIndex;
+    private volatile boolean stopRequested;
+    private long deadline;
+    private long nodes;
+    private boolean aborted;
+
+    // rules: le condizioni di vittoria della partita (solo le linee abilitate contano)
+    // maxDepth: profondità massima in turni, 16 = senza limite
+    public QuartoAI(VictoryCheck rules, int maxDepth) {
+        this(rules, maxDepth, new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    // table: tabella delle trasposizioni, conservata tra una mossa e l'altra
+    public QuartoAI(VictoryCheck rules, int maxDepth, TranspositionTable table) {
+        this(rules, maxDepth, table, 0);
+    }
+
+    QuartoAI(VictoryCheck rules, int maxDepth, TranspositionTable table, int helperIndex) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("La profondità massima deve essere almeno 1.");
+        }
+        this.rules = rules;
+        this.maxDepth = maxDepth;
+        this.table = table;
+        this.helperIndex = helperIndex;
+    }
+
+    // position: la scacchiera; hand: codice del pezzo da piazzare (-1 se c'è solo da scegliere il pezzo);
+    // available: maschera dei codici dei pezzi ancora da assegnare (hand escluso)
+    @Override
+    public Move findMove(BitBoard position, int hand, int available, long timeBudgetMillis) {
+        aborted = false;
+        nodes = 0;
+        deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        board.copyFrom(position);
+        if (helperIndex == 0) table.newSearch();
+
+        if (hand >= 0) {
+            int winningSquare = rules.winningSquare(board, hand);
+            if (winningSquare >= 0) {
+                return new Move(winningSquare, -1, true, WIN_SCORE - 1, 0, 0);
+            }
+        }
+
+        Move best = fallbackMove(hand, available);
+        int turnsLeft = board.getEmptyCount();
+        for (int depth = 1 + helperIndex % 2; depth <= Math.min(maxDepth, turnsLeft); depth++) {
+            Move move = searchRoot(hand, available, depth);
+            if (aborted) {
+                break;
+            }
+            best = move;
+            if (Math.abs(move.score) > WIN_SCORE - BitBoard.SQUARES * 2) {
+                break; // risultato già dimostrato, inutile andare più a fondo
+            }
+        }
+        return best;
+    }
+
+    // Punteggio, per chi deve muovere, di ogni casella dove piazzare hand (con il pezzo migliore da dare dopo)
+    // oppure, se hand < 0, di ogni pezzo di available da dare all'avversario; NO_SCORE per le mosse impossibili.
+    // Approfondimento iterativo come findMove, ma senza potatura tra le mosse della radice: ogni punteggio è esatto.
+    // Si ferma a fine tempo, con stop() o quando tutti i punteggi sono dimostrati; restituisce l'ultima iterazione completa
+    public int[] analyze(BitBoard position, int hand, int available, long timeBudgetMillis, AnalysisListener listener) {
+        aborted = false;
+        nodes = 0;
+        deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        board.copyFrom(position);
+        table.newSearch();
+
+        int[] scores = new int[BitBoard.SQUARES];
+        int[] completed = null;
+        // Senza pezzo in mano la radice dà solo il pezzo: serve un turno in più per arrivare a fine partita
+        int turnsLeft = board.getEmptyCount() + (hand < 0 ? 1 : 0);
+        for (int depth = 1; depth <= Math.min(maxDepth, turnsLeft); depth++) {
+            if (hand < 0) analyzePieces(available, depth, scores);
+            else analyzeSquares(hand, available, depth, scores);
+            if (aborted) {
+                break;
+            }
+            boolean complete = depth >= turnsLeft || allProven(scores);
+            completed = scores.clone();
+            listener.onIteration(depth, completed, complete);
+            if (complete) {
+                break;
+            }
+        }
+        return completed;
+    }
+
+    // Interrompe la ricerca in corso (la findMove restituisce la migliore mossa trovata finora)
+    @Override
+    public void stop() {
+        stopRequested = true;
+    }
+
+    @Override
+    public void resetStop() {
+        stopRequested = false;
+    }
+
+    // Nodi visitati nell'ultima findMove (comprese le iterazioni interrotte)
+    @Override
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    // Tempo da dedicare a una mossa: il tempo rimasto diviso per i turni che restano al giocatore, al massimo maxMillis
+    public static long timeBudgetMillis(long remainingMillis, int emptySquares, long maxMillis) {
+        long turnsLeft = (emptySquares + 1) / 2 + 1;
+        return Math.max(1, Math.min(maxMillis, remainingMillis / turnsLeft));
+    }
+
+    // Mossa immediata senza ricerca (per esempio se un motore fallisce): vince se può, altrimenti
+    // piazza dove resta un pezzo da dare che non fa vincere subito l'avversario. Parametri come findMove
+    public static Move safeMove(VictoryCheck rules, BitBoard position, int hand, int available) {
+        if (hand >= 0) {
+            int winningSquare = rules.winningSquare(position, hand);
+            if (winningSquare >= 0) {
+                return new Move(winningSquare, -1, true, WIN_SCORE - 1, 0, 0);
+            }
+        }
+        return fallbackMove(rules, new BitBoard(position), hand, available);
+    }
+
+    // Mossa di riserva di findMove se neanche la prima iterazione finisce in tempo
+    private Move fallbackMove(int hand, int available) {
+        return fallbackMove(rules, board, hand, available);
+    }
+
+    // board viene modificata durante il calcolo e poi rimessa com'era
+    private static Move fallbackMove(VictoryCheck rules, BitBoard board, int hand, int available) {
+        if (hand < 0) {
+            return new Move(-1, Integer.numberOfTrailingZeros(available), false, 0, 0, 0);
+        }
+        int empty = ~board.getOccupied() & BitBoard.FULL_MASK;
+        int fallbackSquare = Integer.numberOfTrailingZeros(empty);
+        int fallbackPiece = available == 0 ? -1 : Integer.numberOfTrailingZeros(available);
+        for (int squares = empty; squares != 0; squares &= squares - 1) {
+            int square = Integer.numberOfTrailingZeros(squares);
+            board.place(square, hand);
+            int safe = available & ~rules.winningPieces(board);
+            board.remove(square);
+            if (safe != 0) {
+                return new Move(square, Integer.numberOfTrailingZeros(safe), false, 0, 0, 0);
+            }
+        }
+        return new Move(fallbackSquare, fallbackPiece, false, -WIN_SCORE, 0, 0);
+    }
+
+    private void analyzeSquares(int hand, int available, int depth, int[] scores) {
+        int empty = ~board.getOccupied() & BitBoard.FULL_MASK;
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            if ((empty & (1 << square)) == 0) {
+                scores[square] = NO_SCORE;
+                continue;
+            }
+            if (rules.isWinningMove(board, square, hand)) {
+                scores[square] = WIN_SCORE - 1;
+                continue;
+            }
+            board.place(square, hand);
+            int safe = available & ~rules.winningPieces(board);
+            int best = available == 0 ? 0 : -(WIN_SCORE - 2); // ultimo pezzo senza Quarto: patta
+            for (int pieces = safe; pieces != 0; pieces &= pieces - 1) {
+                int piece = Integer.numberOfTrailingZeros(pieces);
+                int score = -negamax(piece, available & ~(1 << piece), depth - 1, -INFINITY, -best, 2);
+                if (aborted) break;
+                best = Math.max(best, score);
+            }
+            board.remove(square);
+            if (aborted) return;
+            scores[square] = best;
+        }
+    }
+
+    private void analyzePieces(int available, int depth, int[] scores) {
+        for (int piece = 0; piece < BitBoard.SQUARES; piece++) {
+            if ((available & (1 << piece)) == 0) {
+                scores[piece] = NO_SCORE;
+                continue;
+            }
+            scores[piece] = -negamax(piece, available & ~(1 << piece), depth - 1, -INFINITY, INFINITY, 1);
+            if (aborted) return;
+        }
+    }
+
+    // Vittoria o sconfitta dimostrata per ogni mossa (una patta non si dimostra prima dell'ultima profondità)
+    private static boolean allProven(int[] scores) {
+        for (int score : scores) {
+            if (score != NO_SCORE && Math.abs(score) <= WIN_SCORE - BitBoard.SQUARES * 2) return false;
+        }
+        return true;
+    }
+
+    private Move searchRoot(int hand, int available, int depth) {
+        int alpha = -INFINITY;
+        int bestSquare = -1;
+        int bestPiece = -1;
+
+        if (hand < 0) {
+            // Inizio partita: c'è solo da scegliere il pezzo
+            for (int pieces = available; pieces != 0; pieces &= pieces - 1) {
+                int piece = Integer.numberOfTrailingZeros(pieces);
+                int score = -negamax(piece, available & ~(1 << piece), depth - 1, -INFINITY, -alpha, 1);
+                if (aborted) return null;
+                if (score > alpha) {
+                    alpha = score;
+                    bestPiece = piece;
+                }
+            }
+            return new Move(-1, bestPiece, false, alpha, depth, nodes);
+        }
+
+        // La mossa migliore dell'iterazione precedente (salvata nella tabella) viene provata per prima
+        long key = board.getHash() ^ Zobrist.hand(hand);
+        long entry = table.probe(key);
+        int firstSquare = entry != 0L ? Math.max(0, TranspositionTable.bestSquare(entry)) : 0;
+        int firstPiece = entry != 0L ? Math.max(0, TranspositionTable.bestPiece(entry)) : 0;
+        if (helperIndex > 0) {
+            firstSquare = (firstSquare + helperIndex * 7) & 0xF;
+            firstPiece = (firstPiece + helperIndex * 5) & 0xF;
+        }
+
+        int empty = ~board.getOccupied() & BitBoard.FULL_MASK;
+        for (int i = 0; i < BitBoard.SQUARES; i++) {
+            int square = (firstSquare + i) & 0xF;
+            if ((empty & (1 << square)) == 0) continue;
+            board.place(square, hand);
+            if (available == 0) {
+                // Ultimo pezzo, nessun Quarto: patta
+                if (0 > alpha) {
+                    alpha = 0;
+                    bestSquare = square;
+                    bestPiece = -1;
+                }
+            } else {
+                int safe = available & ~rules.winningPieces(board);
+                if (safe == 0) {
+                    // Qualsiasi pezzo diamo, l'avversario fa Quarto
+                    int score = -(WIN_SCORE - 2);
+                    if (score > alpha) {
+                        alpha = score;
+                        bestSquare = square;
+                        bestPiece = Integer.numberOfTrailingZeros(available);
+                    }
+                }
+                for (int j = 0; j < 16; j++) {
+                    int piece = (firstPiece + j) & 0xF;
+                    if ((safe & (1 << piece)) == 0) continue;
+                    int score = -negamax(piece, available & ~(1 << piece), depth - 1, -INFINITY, -alpha, 2);
+                    if (aborted) {
+                        board.remove(square);
+                        return null;
+                    }
+                    if (score > alpha) {
+                        alpha = score;
+                        bestSquare = square;
+                        bestPiece = piece;
+                    }
+                }
+            }
+            board.remove(square);
+        }
+        table.store(key, alpha, depth, TranspositionTable.EXACT, bestSquare, bestPiece);
+        return new Move(bestSquare, bestPiece, false, alpha, depth, nodes);
+    }
+
+    // Valore della posizione per chi deve piazzare "hand"; ply = numero del turno contando dalla radice
+    private int negamax(int hand, int available, int depth, int alpha, int beta, int ply) {
+        if ((++nodes & TIME_CHECK_INTERVAL) == 0 && (stopRequested || System.nanoTime() > deadline)) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+
+        if (rules.winningSquare(board, hand) >= 0) {
+            return WIN_SCORE - ply;
+        }
+        if (available == 0) {
+            return 0; // resta una sola casella e il pezzo non fa Quarto: patta
+        }
+        if (depth == 0) {
+            return 0; // orizzonte: posizione non ancora decisa
+        }
+
+        long key = board.getHash() ^ Zobrist.hand(hand);
+        long entry = table.probe(key);
+        int firstSquare = 0;
+        int firstPiece = 0;
+        if (entry != 0L) {
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT) return score;
+                if (bound == TranspositionTable.LOWER) alpha = Math.max(alpha, score);
+                else beta = Math.min(beta, score);
+                if (alpha >= beta) return score;
+            }
+            firstSquare = Math.max(0, TranspositionTable.bestSquare(entry));
+            firstPiece = Math.max(0, TranspositionTable.bestPiece(entry));
+        }
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestSquare = -1;
+        int bestPiece = -1;
+        int empty = ~board.getOccupied() & BitBoard.FULL_MASK;
+        search:
+        for (int i = 0; i < BitBoard.SQUARES; i++) {
+            int square = (firstSquare + i) & 0xF;
+            if ((empty & (1 << square)) == 0) continue;
+            board.place(square, hand);
+            int safe = available & ~rules.winningPieces(board);
+            if (safe == 0 && -(WIN_SCORE - ply - 1) > best) {
+                best = -(WIN_SCORE - ply - 1);
+                bestSquare = square;
+                bestPiece = Integer.numberOfTrailingZeros(available);
+            }
+            for (int j = 0; j < 16; j++) {
+                int piece = (firstPiece + j) & 0xF;
+                if ((safe & (1 << piece)) == 0) continue;
+                int score = -negamax(piece, available & ~(1 << piece), depth - 1, -beta, -alpha, ply + 1);
+                if (score > best) {
+                    best = score;
+                    bestSquare = square;
+                    bestPiece = piece;
+                    if (score > alpha) {
+                        alpha = score;
+                        if (alpha >= beta) {
+                            board.remove(square);
+                            break search;
+                        }
+                    }
+                }
+            }
+            board.remove(square);
+        }
+
+        if (!aborted) {
+            int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                    : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, toTable(best, ply), depth, bound, bestSquare, bestPiece);
+        }
+        return best;
+    }
+
+    // I punteggi di vittoria/sconfitta dipendono dal turno: nella tabella si salvano relativi alla posizione
+    private static int toTable(int score, int ply) {
+        if (score > WIN_SCORE - 100) return score + ply;
+        if (score < -(WIN_SCORE - 100)) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > WIN_SCORE - 100) return score - ply;
+        if (score < -(WIN_SCORE - 100)) return score + ply;
+        return score;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.myquarto.ai;
+
+import com.example.myquarto.BitBoard;
+
+/**
+ * Interfaccia comune dei motori di gioco del computer (alpha-beta, ricerca parallela, Monte Carlo):
+ * MainActivity e gli strumenti da riga di comando scelgono il motore senza conoscerne i dettagli.
+ * findMove va chiamato fuori dal thread della UI; stop() e shutdown() da qualsiasi thread.
+ * Una richiesta di stop() resta valida finché non viene chiamato resetStop(): findMove non la azzera, così uno stop()
+ * arrivato prima che la ricerca sia davvero partita non va perso (EngineExecutor chiama resetStop() prima di ogni ricerca).
+ */
+
+/**
+ * I metodi presenti in questa interfaccia sono:
+ * findMove(BitBoard position, int hand, int available, long timeBudgetMillis)
+ * stop()
+ * resetStop()
+ * getNodeCount()
+ * shutdown()
+ */
+public interface QuartoEngine {
+
+    // position: la scacchiera; hand: codice del pezzo da piazzare (-1 se c'è solo da scegliere il pezzo);
+    // available: maschera dei codici dei pezzi ancora da assegnare (hand escluso)
+    QuartoAI.Move findMove(BitBoard position, int hand, int available, long timeBudgetMillis);
+
+    // Interrompe la ricerca in corso (findMove restituisce la migliore mossa trovata finora);
+    // vale anche per le findMove successive, fino a resetStop()
+    void stop();
+
+    // Annulla una richiesta di stop() precedente: da chiamare prima di una nuova ricerca, mai durante
+    void resetStop();
+
+    // Lavoro svolto nell'ultima findMove: nodi per la ricerca ad albero, partite simulate per Monte Carlo
+    long getNodeCount();
+
+    // Libera i thread del motore, se ne ha; l'istanza non va più usata
+    default void shutdown() {
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.myquarto.ai;
+
+import java.util.Arrays;
+
+/**
+ * Questa classe è la tabella delle trasposizioni usata dalla ricerca di QuartoAI.
+ * Nell'albero di Quarto la stessa posizione si raggiunge con molti ordini di mosse diversi:
+ * la tabella ricorda il risultato già calcolato (punteggio, tipo di limite, profondità e mossa migliore)
+ * indicizzato con l'hash di Zobrist della posizione (scacchiera + pezzo in mano).
+ *
+ * La memoria è fissa: due array di long (chiave e dati impacchettati), 16 byte per elemento,
+ * con un numero di elementi potenza di due. In caso di collisione sullo stesso slot vince la
+ * voce più profonda (depth-preferred), a meno che quella presente sia di una ricerca precedente.
+ *
+ * La tabella può essere condivisa tra più thread di ricerca senza lock (Lazy SMP): nello slot si salva
+ * chiave XOR dati, così una scrittura concorrente "strappata" non combacia con la chiave e viene
+ * semplicemente vista come slot vuoto.
+ *
+ * Formato dei dati impacchettati in un long:
+ * bit 0-15 punteggio + 32768, bit 16-23 profondità, bit 24-25 tipo di limite,
+ * bit 26-30 casella migliore + 1, bit 31-35 pezzo migliore + 1, bit 36-43 età della ricerca
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * newSearch()
+ * probe(long key)
+ * store(long key, int score, int depth, int bound, int bestSquare, int bestPiece)
+ * clear()
+ * capacity()
+ * score(long entry), depth(long entry), bound(long entry), bestSquare(long entry), bestPiece(long entry)
+ */
+public final class TranspositionTable {
+    // Tipo di limite del punteggio (0 = slot vuoto)
+    public static final int EXACT = 1;
+    public static final int LOWER = 2; // il valore vero è >= score (taglio beta)
+    public static final int UPPER = 3; // il valore vero è <= score (nessuna mossa ha superato alpha)
+
+    private static final int BYTES_PER_ENTRY = 16;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private int age;
+
+    public TranspositionTable(int sizeMegabytes) {
+        if (sizeMegabytes < 1) {
+            throw new IllegalArgumentException("La tabella deve occupare almeno 1 MB.");
+        }
+        long maxEntries = (long) sizeMegabytes * 1024 * 1024 / BYTES_PER_ENTRY;
+        int entries = Integer.highestOneBit((int) Math.min(maxEntries, 1 << 30));
+        this.keys = new long[entries];
+        this.data = new long[entries];
+        this.mask = entries - 1;
+    }
+
+    // Da chiamare all'inizio di ogni nuova ricerca: le voci vecchie diventano sostituibili
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    // Restituisce i dati impacchettati della posizione, 0 se non presente
+    public long probe(long key) {
+        int index = (int) key & mask;
+        long entry = data[index];
+        return (keys[index] ^ entry) == key ? entry : 0L;
+    }
+
+    public void store(long key, int score, int depth, int bound, int bestSquare, int bestPiece) {
+        int index = (int) key & mask;
+        long old = data[index];
+        if (old != 0L && (keys[index] ^ old) != key && age(old) == age && depth(old) > depth) {
+            return; // tiene la voce più profonda della ricerca corrente
+        }
+        long entry = (score + 32768L)
+                | (long) depth << 16
+                | (long) bound << 24
+                | (long) (bestSquare + 1) << 26
+                | (long) (bestPiece + 1) << 31
+                | (long) age << 36;
+        keys[index] = key ^ entry;
+        data[index] = entry;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    public static int score(long entry) {
+        return (int) (entry & 0xFFFF) - 32768;
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 16) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 24) & 0x3;
+    }
+
+    // -1 se la voce non ha una mossa migliore
+    public static int bestSquare(long entry) {
+        return ((int) (entry >>> 26) & 0x1F) - 1;
+    }
+
+    public static int bestPiece(long entry) {
+        return ((int) (entry >>> 31) & 0x1F) - 1;
+    }
+
+    // Visibile nel package per i test
+    static int age(long entry) {
+        return (int) (entry >>> 36) & 0xFF;
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.myquarto.tools;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.Board;
+import com.example.myquarto.Canonicalizer;
+import com.example.myquarto.GameRecord;
+import com.example.myquarto.GameRecordReader;
+import com.example.myquarto.Piece;
+import com.example.myquarto.VictoryCheck;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Strumento da riga di comando (non usato dall'app) che controlla e indicizza archivi di partite
+ * scritti con GameRecordWriter (per esempio da Tournament --record).
+ *
+ * Ogni partita viene rigiocata su una Board: ogni pezzo deve essere ancora disponibile, ogni casella deve
+ * passare Board.isValidSpot, nessuna mossa prima dell'ultima può fare Quarto e il risultato deve essere coerente
+ * con VictoryCheck (una vittoria per Quarto! richiede che l'ultima mossa faccia Quarto e che il vincitore sia chi
+ * l'ha piazzata, una patta per scacchiera piena richiede 16 mosse e nessun Quarto).
+ * Ogni posizione raggiunta da una partita valida (scacchiera e pezzo in mano, in forma canonica) entra in un indice
+ * invertito posizione -> partite: coppie (chiave, id partita) ordinate per chiave, interrogate con una ricerca binaria.
+ * Le partite non valide vengono solo contate e non entrano nell'indice.
+ * I file sono letti in parallelo, uno per thread; l'id di una partita è (indice del file << 40) | numero nel file.
+ * Un file illeggibile (intestazione sbagliata, partita troncata o corrotta) viene segnalato e le sue partite
+ * già lette restano nell'indice: gli altri file vengono indicizzati comunque.
+ *
+ * Uso: java com.example.myquarto.tools.GameArchiveIndexer [--threads T] [--query "47:<16 caselle> <pezzo>"]... file...
+ * Nelle query le caselle sono cifre esadecimali ('.' = vuota), il pezzo in mano è esadecimale o '-' se nessuno.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * main(String[] args)
+ */
+public final class GameArchiveIndexer {
+    private static final int FILE_SHIFT = 40;
+    private static final int MAX_ERRORS_SHOWN = 20;
+    private static final int MAX_PAIRS = Integer.MAX_VALUE - 8; // limite degli array Java
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> queries = new ArrayList<>();
+        List<File> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--query":
+                    queries.add(args[++i]);
+                    break;
+                default:
+                    files.add(new File(args[i]));
+            }
+        }
+        if (files.isEmpty()) {
+            System.err.println("Uso: GameArchiveIndexer [--threads T] [--query \"47:<16 caselle> <pezzo>\"]... file...");
+            System.exit(2);
+        }
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        List<FileResult> results = new ArrayList<>();
+        try {
+            List<Future<FileResult>> running = new ArrayList<>();
+            for (int index = 0; index < files.size(); index++) {
+                final int fileIndex = index;
+                running.add(pool.submit(() -> scanFile(files.get(fileIndex), fileIndex)));
+            }
+            for (Future<FileResult> future : running) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Errore durante la lettura degli archivi.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        double scanSeconds = (System.nanoTime() - start) / 1e9;
+
+        // Unione delle coppie di tutti i file e ordinamento per chiave
+        long games = 0;
+        long moves = 0;
+        long invalid = 0;
+        long totalPairs = 0;
+        List<String> errors = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        for (FileResult result : results) {
+            games += result.games;
+            moves += result.moves;
+            invalid += result.invalid;
+            totalPairs += result.size;
+            for (String error : result.errors) {
+                if (errors.size() < MAX_ERRORS_SHOWN) errors.add(error);
+            }
+            if (result.failure != null) failures.add(result.failure);
+        }
+        if (totalPairs > MAX_PAIRS) {
+            throw new IOException("Indice troppo grande: " + totalPairs + " posizioni-partita, al massimo "
+                    + MAX_PAIRS + ". Indicizzare meno file alla volta.");
+        }
+        int pairs = (int) totalPairs;
+        long[] keys = new long[pairs];
+        long[] gameIds = new long[pairs];
+        int offset = 0;
+        for (FileResult result : results) {
+            System.arraycopy(result.keys, 0, keys, offset, result.size);
+            System.arraycopy(result.gameIds, 0, gameIds, offset, result.size);
+            offset += result.size;
+        }
+        sortByKey(keys, gameIds, 0, pairs - 1);
+        double totalSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(String.format(Locale.ROOT,
+                "Partite: %d in %d file, mosse: %d, non valide: %d", games, files.size(), moves, invalid));
+        for (String error : errors) {
+            System.out.println("  " + error);
+        }
+        for (String failure : failures) {
+            System.out.println("File illeggibile, indicizzato fino all'errore: " + failure);
+        }
+        System.out.println(String.format(Locale.ROOT,
+                "Verifica e indicizzazione: %.2f s (%.0f partite/s), indice: %d posizioni-partita, totale %.2f s",
+                scanSeconds, games / Math.max(scanSeconds, 1e-9), pairs, totalSeconds));
+
+        for (String query : queries) {
+            answer(query, keys, gameIds, files);
+        }
+    }
+
+    //region Verifica e indicizzazione di un file
+    // Gli errori di lettura restano nel risultato del file (failure), così un file rotto non ferma gli altri
+    private static FileResult scanFile(File file, int fileIndex) {
+        FileResult result = new FileResult();
+        Board board = new Board();
+        VictoryCheck[] rulesByFlags = new VictoryCheck[64]; // tutte legate a board
+        Canonicalizer[] canonicalizers = new Canonicalizer[64];
+        GameRecord record = new GameRecord();
+        try (FileInputStream in = new FileInputStream(file);
+             GameRecordReader reader = new GameRecordReader(in)) {
+            long ordinal = 0;
+            while (reader.next(record)) {
+                int flags = record.getRuleFlags();
+                if (rulesByFlags[flags] == null) {
+                    rulesByFlags[flags] = VictoryCheck.fromFlags(board, flags);
+                    canonicalizers[flags] = new Canonicalizer(rulesByFlags[flags].getEnabledLines());
+                }
+                long gameId = (long) fileIndex << FILE_SHIFT | ordinal;
+                result.pendingCount = 0;
+                String error = replay(record, board, rulesByFlags[flags], canonicalizers[flags], result);
+                if (error == null) {
+                    result.commit(gameId);
+                } else {
+                    result.invalid++;
+                    if (result.errors.size() < MAX_ERRORS_SHOWN) {
+                        result.errors.add(file.getName() + " #" + ordinal + ": " + error);
+                    }
+                }
+                result.games++;
+                result.moves += record.getMoveCount();
+                ordinal++;
+            }
+        } catch (IOException e) {
+            result.invalid++; // la partita illeggibile
+            result.failure = file.getName() + ": " + e.getMessage();
+        }
+        return result;
+    }
+
+    // Rigioca la partita su board e prepara in result le chiavi delle sue posizioni (entrano nell'indice
+    // solo se la partita è valida); restituisce l'errore, null se è valida
+    private static String replay(GameRecord record, Board board, VictoryCheck rules, Canonicalizer canonicalizer,
+                                 FileResult result) {
+        if (record.getRuleFlags() == 0) return "nessuna condizione di vittoria";
+        board.reset();
+        BitBoard position = board.getBitBoard();
+        int moveCount = record.getMoveCount();
+        boolean quarto = false;
+        int lastPlayer = 0;
+        for (int i = 0; i < moveCount; i++) {
+            int player = i % 2 == 0 ? 2 : 1; // il giocatore 1 sceglie il primo pezzo, il 2 lo piazza
+            int code = record.getPiece(i);
+            int square = record.getSquare(i);
+            result.stage(positionKey(canonicalizer, position, code, record.getRuleFlags()));
+
+            if (quarto) return "mossa " + (i + 1) + ": la partita continua dopo un Quarto";
+            if (!board.assignPieceToPlayer(player, Piece.fromCode(code))) {
+                return "mossa " + (i + 1) + ": il pezzo " + code + " non è disponibile";
+            }
+            if (!board.isValidSpot(square / BitBoard.SIZE, square % BitBoard.SIZE)) {
+                return "mossa " + (i + 1) + ": la casella " + square + " non è libera";
+            }
+            quarto = rules.isWinningMove(position, square, code);
+            if (!board.placePlayerPiece(player, square / BitBoard.SIZE, square % BitBoard.SIZE)) {
+                return "mossa " + (i + 1) + ": la casella " + square + " non è libera";
+            }
+            lastPlayer = player;
+        }
+        result.stage(positionKey(canonicalizer, position, -1, record.getRuleFlags()));
+
+        switch (record.getEnding()) {
+            case GameRecord.ENDING_QUARTO:
+                if (!quarto) return "vittoria per Quarto! senza Quarto sulla scacchiera";
+                int winner = lastPlayer == 1 ? GameRecord.RESULT_PLAYER1_WINS : GameRecord.RESULT_PLAYER2_WINS;
+                if (record.getResult() != winner) {
+                    return "Quarto! fatto dal giocatore " + lastPlayer + " ma vincitore registrato diverso";
+                }
+                break;
+            case GameRecord.ENDING_FULL_BOARD:
+                if (moveCount != BitBoard.SQUARES) return "patta con la scacchiera non piena";
+                if (quarto) return "patta con un Quarto sulla scacchiera";
+                if (record.getResult() != GameRecord.RESULT_DRAW) return "scacchiera piena senza patta";
+                break;
+            case GameRecord.ENDING_NONE:
+                if (record.getResult() != GameRecord.RESULT_UNFINISHED) return "risultato senza fine della partita";
+                break;
+            default:
+                // tempo scaduto o abbandono: vince chiunque, ma non può essere patta
+                if (record.getResult() == GameRecord.RESULT_DRAW) return "patta per tempo o abbandono";
+                break;
+        }
+        return null;
+    }
+
+    // Chiave canonica della posizione, distinta per ogni combinazione di condizioni di vittoria
+    private static long positionKey(Canonicalizer canonicalizer, BitBoard board, int hand, int flags) {
+        return canonicalizer.canonicalize(board, hand) ^ flags * 0x9E3779B97F4A7C15L;
+    }
+    //endregion
+
+    //region Query
+    private static void answer(String query, long[] keys, long[] gameIds, List<File> files) {
+        int colon = query.indexOf(':');
+        String[] parts = query.substring(colon + 1).trim().split("\\s+");
+        if (colon < 0 || parts.length != 2 || parts[0].length() != BitBoard.SQUARES) {
+            throw new IllegalArgumentException("Query non valida: " + query);
+        }
+        int flags = Integer.parseInt(query.substring(0, colon));
+        BitBoard board = new BitBoard();
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            char c = parts[0].charAt(square);
+            if (c != '.') board.place(square, Character.digit(c, 16));
+        }
+        int hand = parts[1].equals("-") ? -1 : Character.digit(parts[1].charAt(0), 16);
+        Canonicalizer canonicalizer = new Canonicalizer(VictoryCheck.fromFlags(new Board(), flags).getEnabledLines());
+        long key = positionKey(canonicalizer, board, hand, flags);
+
+        long start = System.nanoTime();
+        int first = lowerBound(keys, key);
+        int last = first;
+        while (last < keys.length && keys[last] == key) last++;
+        long[] found = Arrays.copyOfRange(gameIds, first, last);
+        Arrays.sort(found);
+        double micros = (System.nanoTime() - start) / 1e3;
+
+        System.out.println(String.format(Locale.ROOT, "%s: %d partite (%.1f µs)", query, found.length, micros));
+        for (int i = 0; i < Math.min(found.length, 10); i++) {
+            System.out.println("  " + files.get((int) (found[i] >>> FILE_SHIFT)).getName()
+                    + " #" + (found[i] & ((1L << FILE_SHIFT) - 1)));
+        }
+        if (found.length > 10) System.out.println("  ...");
+    }
+
+    // Ordina le coppie (keys[i], values[i]) per chiave: quicksort sui due array paralleli, senza oggetti
+    private static void sortByKey(long[] keys, long[] values, int low, int high) {
+        while (high - low > 16) {
+            long pivot = keys[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (keys[i] < pivot) i++;
+                while (keys[j] > pivot) j--;
+                if (i <= j) {
+                    swap(keys, values, i++, j--);
+                }
+            }
+            // ricorsione sulla parte più piccola, ciclo sulla più grande
+            if (j - low < high - i) {
+                sortByKey(keys, values, low, j);
+                low = i;
+            } else {
+                sortByKey(keys, values, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && keys[j - 1] > keys[j]; j--) {
+                swap(keys, values, j - 1, j);
+            }
+        }
+    }
+
+    private static void swap(long[] keys, long[] values, int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long value = values[a];
+        values[a] = values[b];
+        values[b] = value;
+    }
+
+    private static int lowerBound(long[] keys, long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+    //endregion
+
+    // Risultato di un file: contatori e coppie (chiave, id partita) dell'indice,
+    // più le chiavi della partita in verifica (pending), aggiunte all'indice da commit se è valida
+    private static final class FileResult {
+        long games;
+        long moves;
+        long invalid;
+        final List<String> errors = new ArrayList<>();
+        String failure; // errore di lettura che ha interrotto il file, null se letto tutto
+        long[] keys = new long[1 << 12];
+        long[] gameIds = new long[1 << 12];
+        int size;
+        final long[] pending = new long[BitBoard.SQUARES + 1];
+        int pendingCount;
+
+        void stage(long key) {
+            pending[pendingCount++] = key;
+        }
+
+        void commit(long gameId) {
+            for (int i = 0; i < pendingCount; i++) {
+                add(pending[i], gameId);
+            }
+            pendingCount = 0;
+        }
+
+        void add(long key, long gameId) {
+            if (size == keys.length) {
+                if (size == MAX_PAIRS) {
+                    throw new IllegalStateException("Indice troppo grande: più di " + MAX_PAIRS + " posizioni-partita.");
+                }
+                int length = (int) Math.min(size * 2L, MAX_PAIRS);
+                keys = Arrays.copyOf(keys, length);
+                gameIds = Arrays.copyOf(gameIds, length);
+            }
+            keys[size] = key;
+            gameIds[size] = gameId;
+            size++;
+        }
+    }
+}
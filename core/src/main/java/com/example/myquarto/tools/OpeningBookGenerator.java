@@ -0,0 +1,151 @@
+package com.example.myquarto.tools;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.Board;
+import com.example.myquarto.Canonicalizer;
+import com.example.myquarto.VictoryCheck;
+import com.example.myquarto.ai.OpeningBook;
+import com.example.myquarto.ai.ParallelSearch;
+import com.example.myquarto.ai.QuartoAI;
+import com.example.myquarto.ai.TranspositionTable;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Strumento da riga di comando (non usato dall'app) che costruisce il libro delle aperture letto da OpeningBook.
+ *
+ * Il libro nasce dall'autogioco: si giocano partite dall'inizio finché sulla scacchiera ci sono al più maxPieces
+ * pezzi; ogni posizione nuova (in forma canonica) viene cercata a lungo con ParallelSearch e la mossa trovata
+ * entra nel libro. Le partite seguono il libro, ma con probabilità VARIETY giocano una mossa casuale che non
+ * perde subito, così le partite successive raggiungono posizioni diverse.
+ * Le ricerche avvengono sulla forma canonica, quindi le mosse sono già in coordinate canoniche.
+ *
+ * Uso: java com.example.myquarto.tools.OpeningBookGenerator <file> [maxPezzi=3] [partite=300] [msPerPosizione=2000] [thread] [linee=47]
+ * Il file per le regole di default va copiato in app/src/main/assets/opening_book.qob
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * main(String[] args)
+ */
+public final class OpeningBookGenerator {
+    private static final long SEED = 0x0B00C5EEDL;
+    private static final double VARIETY = 0.35;
+    private static final int TABLE_MEGABYTES = 64;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: OpeningBookGenerator <file> [maxPezzi=3] [partite=300] [msPerPosizione=2000] [thread] [linee=47]");
+            System.exit(2);
+        }
+        File output = new File(args[0]);
+        int maxPieces = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 300;
+        long searchMillis = args.length > 3 ? Long.parseLong(args[3]) : 2000;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        int flags = args.length > 5 ? Integer.parseInt(args[5]) : 47;
+
+        VictoryCheck rules = VictoryCheck.fromFlags(new Board(), flags);
+        Canonicalizer canonicalizer = new Canonicalizer(rules.getEnabledLines());
+        ParallelSearch search = new ParallelSearch(rules, BitBoard.SQUARES, threads, new TranspositionTable(TABLE_MEGABYTES));
+        Map<Long, long[]> book = new TreeMap<>(); // chiave -> {mossa impacchettata, occupazione canonica}
+        Random random = new Random(SEED);
+        long start = System.nanoTime();
+
+        try {
+            for (int game = 0; game < games; game++) {
+                BitBoard board = new BitBoard();
+                int hand = -1;
+                int available = 0xFFFF;
+                while (BitBoard.SQUARES - board.getEmptyCount() <= maxPieces) {
+                    long key = canonicalizer.canonicalize(board, hand);
+                    long[] entry = book.get(key);
+                    if (entry == null) {
+                        entry = searchCanonical(canonicalizer, search, hand, searchMillis);
+                        book.put(key, entry);
+                    }
+                    int square;
+                    int piece;
+                    if (random.nextDouble() < VARIETY) {
+                        int[] move = randomSafeMove(rules, board, hand, available, random);
+                        square = move[0];
+                        piece = move[1];
+                    } else {
+                        int canonicalSquare = (int) (entry[0] & 0xFF) - 1;
+                        int canonicalPiece = (int) (entry[0] >> 8 & 0xFF) - 1;
+                        square = canonicalSquare < 0 ? -1 : canonicalizer.unmapSquare(canonicalSquare);
+                        piece = canonicalPiece < 0 ? -1 : canonicalizer.unmapPiece(canonicalPiece);
+                    }
+                    if (square >= 0 && rules.isWinningMove(board, square, hand)) break;
+                    if (square >= 0) board.place(square, hand);
+                    if (piece < 0) break;
+                    hand = piece;
+                    available &= ~(1 << piece);
+                }
+                if ((game + 1) % 10 == 0) {
+                    System.out.println("Partite: " + (game + 1) + "/" + games + ", posizioni nel libro: " + book.size()
+                            + " (" + (System.nanoTime() - start) / 1_000_000_000 + " s)");
+                }
+            }
+        } finally {
+            search.shutdown();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.HEADER_BYTES + book.size() * OpeningBook.RECORD_BYTES);
+        OpeningBook.writeHeader(buffer, rules.getEnabledLines(), maxPieces, book.size());
+        for (Map.Entry<Long, long[]> entry : book.entrySet()) { // TreeMap: chiavi già in ordine
+            long move = entry.getValue()[0];
+            OpeningBook.writeRecord(buffer, entry.getKey(),
+                    (int) (move & 0xFF) - 1, (int) (move >> 8 & 0xFF) - 1, (short) (move >> 16),
+                    (int) entry.getValue()[1], (int) (move >> 32 & 0xFF));
+        }
+        try (FileOutputStream out = new FileOutputStream(output)) {
+            out.write(buffer.array());
+        }
+        System.out.println("Libro scritto in " + output + ": " + book.size() + " posizioni");
+    }
+
+    // Cerca la forma canonica calcolata dall'ultima canonicalize.
+    // Mossa impacchettata: bit 0-7 casella + 1, bit 8-15 pezzo + 1, bit 16-31 punteggio, bit 32-39 profondità
+    private static long[] searchCanonical(Canonicalizer canonicalizer, ParallelSearch search, int hand, long searchMillis) {
+        BitBoard canonical = new BitBoard();
+        long cells = canonicalizer.getCanonicalCells();
+        int used = 0;
+        for (int squares = canonicalizer.getCanonicalOccupied(); squares != 0; squares &= squares - 1) {
+            int square = Integer.numberOfTrailingZeros(squares);
+            int code = (int) (cells >>> (square << 2)) & 0xF;
+            canonical.place(square, code);
+            used |= 1 << code;
+        }
+        int canonicalHand = hand < 0 ? -1 : canonicalizer.getCanonicalHand();
+        if (canonicalHand >= 0) used |= 1 << canonicalHand;
+
+        QuartoAI.Move move = search.findMove(canonical, canonicalHand, ~used & 0xFFFF, searchMillis);
+        long packed = (move.square + 1)
+                | (long) (move.pieceToGive + 1) << 8
+                | (long) (move.score & 0xFFFF) << 16
+                | (long) Math.min(move.depth, 0xFF) << 32;
+        return new long[]{packed, canonicalizer.getCanonicalOccupied()};
+    }
+
+    // Casella e pezzo a caso, evitando (se possibile) di dare un pezzo che fa vincere subito l'avversario
+    private static int[] randomSafeMove(VictoryCheck rules, BitBoard board, int hand, int available, Random random) {
+        int square = -1;
+        if (hand >= 0) {
+            int empty = ~board.getOccupied() & BitBoard.FULL_MASK;
+            square = BitBoard.nthSetBit(empty, random.nextInt(Integer.bitCount(empty)));
+        }
+        if (available == 0) return new int[]{square, -1};
+        if (square >= 0) board.place(square, hand);
+        int safe = available & ~rules.winningPieces(board);
+        if (square >= 0) board.remove(square);
+        int pieces = safe != 0 ? safe : available;
+        return new int[]{square, BitBoard.nthSetBit(pieces, random.nextInt(Integer.bitCount(pieces)))};
+    }
+}
@@ -0,0 +1,419 @@
+package com.example.myquarto.tools;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.Board;
+import com.example.myquarto.Canonicalizer;
+import com.example.myquarto.VictoryCheck;
+import com.example.myquarto.Zobrist;
+import com.example.myquarto.ai.TranspositionTable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Strumento da riga di comando (non usato dall'app) che calcola il valore teorico di una variante di Quarto!:
+ * vittoria del primo giocatore (quello che sceglie il primo pezzo), del secondo o patta, con la variante principale.
+ *
+ * Il valore si ottiene con un negamax esatto (valori -1, 0, 1 con finestra alpha-beta nulla) e:
+ * - riduzione per simmetria: nei primi turni le mosse che portano a posizioni equivalenti (Canonicalizer)
+ *   vengono provate una volta sola e la tabella usa la chiave canonica;
+ * - tabella delle trasposizioni condivisa senza lock tra i thread;
+ * - divisione del lavoro: l'albero viene sviluppato fino a splitTurns turni, le posizioni canoniche di quel livello
+ *   sono risolte in parallelo e i valori risalgono l'albero iniziale;
+ * - checkpoint: ogni posizione risolta viene aggiunta al file di checkpoint, che al riavvio viene riletto
+ *   così le posizioni già risolte non si ricalcolano. Un'ultima voce (o un'intestazione) scritta a metà da
+ *   un'interruzione viene tagliata prima di riprendere a scrivere, così le voci successive restano allineate.
+ *
+ * Uso: java com.example.myquarto.tools.QuartoSolver [--rules 47] [--threads T] [--split 3] [--table-mb 1024]
+ *      [--checkpoint file] [--start "<16 caselle esadecimali, '.' = vuota> <pezzo in mano>"]
+ * Senza --start si risolve la scacchiera vuota; --start serve a studiare posizioni intermedie.
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * main(String[] args)
+ */
+public final class QuartoSolver {
+    private static final int CHECKPOINT_MAGIC = 0x51534C56; // "QSLV"
+    private static final int CHECKPOINT_HEADER_BYTES = 8;   // MAGIC, linee abilitate
+    private static final int CHECKPOINT_RECORD_BYTES = 9;   // chiave canonica, valore
+    private static final int CANONICAL_MAX_PIECES = 6; // fino a qui la forma canonica vale il suo costo
+
+    private final VictoryCheck rules;
+    private final int enabledLines;
+    private final TranspositionTable table;
+    private final ThreadLocal<Worker> workers;
+    private final Map<Long, Integer> solved = new ConcurrentHashMap<>(); // chiave canonica -> valore per chi muove
+
+    QuartoSolver(int flags, int tableMegabytes) {
+        this.rules = VictoryCheck.fromFlags(new Board(), flags);
+        this.enabledLines = rules.getEnabledLines();
+        this.table = new TranspositionTable(tableMegabytes);
+        this.workers = ThreadLocal.withInitial(Worker::new);
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int flags = 47;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int splitTurns = 3;
+        int tableMegabytes = 1024;
+        File checkpoint = null;
+        String start = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rules":
+                    flags = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--split":
+                    splitTurns = Integer.parseInt(args[++i]);
+                    break;
+                case "--table-mb":
+                    tableMegabytes = Integer.parseInt(args[++i]);
+                    break;
+                case "--checkpoint":
+                    checkpoint = new File(args[++i]);
+                    break;
+                case "--start":
+                    start = args[++i];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Argomento sconosciuto: " + args[i]);
+            }
+        }
+
+        QuartoSolver solver = new QuartoSolver(flags, tableMegabytes);
+        BitBoard board = new BitBoard();
+        int hand = -1;
+        int available = 0xFFFF;
+        if (start != null) {
+            for (int square = 0; square < BitBoard.SQUARES; square++) {
+                char c = start.charAt(square);
+                if (c == '.') continue;
+                int code = Character.digit(c, 16);
+                board.place(square, code);
+                available &= ~(1 << code);
+            }
+            hand = Character.digit(start.trim().charAt(start.trim().length() - 1), 16);
+            available &= ~(1 << hand);
+        }
+
+        long begin = System.nanoTime();
+        int value = solver.solveRoot(board, hand, available, splitTurns, Math.max(1, threads), checkpoint);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        String mover = hand < 0 ? "il giocatore che sceglie il primo pezzo" : "il giocatore che deve piazzare";
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT, "Valore (regole %d, %.1f s): %s", flags, seconds,
+                value > 0 ? "vince " + mover : value < 0 ? "perde " + mover : "patta"));
+        System.out.println("Variante principale:");
+        for (String line : solver.principalVariation(board, hand, available, splitTurns)) {
+            System.out.println("  " + line);
+        }
+    }
+
+    //region Divisione del lavoro e checkpoint
+    // Valore della radice per chi muove (1 vince, 0 patta, -1 perde); checkpoint può essere null
+    int solveRoot(BitBoard root, int hand, int available, int splitTurns, int threads, File checkpoint)
+            throws IOException, InterruptedException {
+        // Posizioni canoniche a splitTurns turni dalla radice (o prima, se la partita finisce prima)
+        List<long[]> frontier = new ArrayList<>();
+        collectFrontier(new BitBoard(root), hand, available, splitTurns, new Canonicalizer(enabledLines), new HashSet<>(), frontier);
+
+        DataOutputStream out = null;
+        if (checkpoint != null) {
+            long validBytes = loadCheckpoint(checkpoint);
+            FileOutputStream file = new FileOutputStream(checkpoint, true);
+            FileChannel channel = file.getChannel();
+            if (channel.size() > validBytes) channel.truncate(validBytes); // via la parte scritta a metà
+            out = new DataOutputStream(new BufferedOutputStream(file));
+            if (validBytes == 0) {
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeInt(enabledLines);
+                out.flush();
+            }
+        }
+        int alreadySolved = 0;
+        for (long[] unit : frontier) {
+            if (solved.containsKey(unit[0])) alreadySolved++;
+        }
+        System.out.println("Posizioni da risolvere in parallelo: " + frontier.size() + " (già nel checkpoint: " + alreadySolved + ")");
+
+        final DataOutputStream checkpointOut = out;
+        AtomicInteger done = new AtomicInteger(alreadySolved);
+        long begin = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (long[] unit : frontier) {
+                if (solved.containsKey(unit[0])) continue;
+                running.add(pool.submit(() -> {
+                    int value = workers.get().solveUnit(unit);
+                    solved.put(unit[0], value);
+                    if (checkpointOut != null) {
+                        synchronized (checkpointOut) {
+                            checkpointOut.writeLong(unit[0]);
+                            checkpointOut.writeByte(value);
+                            checkpointOut.flush();
+                        }
+                    }
+                    int finished = done.incrementAndGet();
+                    if (finished % 10 == 0 || finished == frontier.size()) {
+                        System.out.println(String.format(Locale.ROOT, "Risolte %d/%d (%.0f s)",
+                                finished, frontier.size(), (System.nanoTime() - begin) / 1e9));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Errore durante la risoluzione.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            if (out != null) out.close();
+        }
+
+        return workers.get().backUp(new BitBoard(root), hand, available, splitTurns);
+    }
+
+    // unit = {chiave canonica, celle canoniche, occupazione | (pezzo in mano + 1) << 16}
+    private void collectFrontier(BitBoard board, int hand, int available, int turns, Canonicalizer canonicalizer,
+                                 Set<Long> seen, List<long[]> frontier) {
+        long key = canonicalizer.canonicalize(board, hand);
+        if (!seen.add(key)) return;
+        if (turns == 0) {
+            frontier.add(new long[]{key, canonicalizer.getCanonicalCells(),
+                    canonicalizer.getCanonicalOccupied() | (long) (canonicalizer.getCanonicalHand() + 1) << 16});
+            return;
+        }
+        if (hand >= 0 && (rules.winningSquare(board, hand) >= 0 || available == 0)) return; // partita già decisa
+        forEachChild(board, hand, available, (square, piece) ->
+                collectFrontier(board, piece, available & ~(1 << piece), turns - 1, canonicalizer, seen, frontier));
+    }
+
+    // Legge le voci complete del checkpoint e restituisce i byte validi (intestazione e voci intere):
+    // 0 se il file manca o l'intestazione è incompleta, così viene riscritta da capo
+    private long loadCheckpoint(File checkpoint) throws IOException {
+        long length = checkpoint.exists() ? checkpoint.length() : 0;
+        if (length == 0) return 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(checkpoint)))) {
+            if (length >= 4 && in.readInt() != CHECKPOINT_MAGIC) {
+                throw new IllegalArgumentException("Il file " + checkpoint + " non è un checkpoint del solutore.");
+            }
+            if (length < CHECKPOINT_HEADER_BYTES) return 0; // interrotto mentre scriveva l'intestazione
+            if (in.readInt() != enabledLines) {
+                throw new IllegalArgumentException("Il checkpoint " + checkpoint + " è di un'altra variante.");
+            }
+            long records = (length - CHECKPOINT_HEADER_BYTES) / CHECKPOINT_RECORD_BYTES;
+            for (long i = 0; i < records; i++) {
+                long key = in.readLong();
+                int value = in.readByte();
+                solved.put(key, value);
+            }
+            return CHECKPOINT_HEADER_BYTES + records * CHECKPOINT_RECORD_BYTES;
+        }
+    }
+    //endregion
+
+    //region Variante principale
+    private List<String> principalVariation(BitBoard start, int hand, int available, int splitTurns) {
+        Worker worker = workers.get();
+        BitBoard board = new BitBoard(start);
+        List<String> lines = new ArrayList<>();
+        int turn = 1;
+        while (true) {
+            if (hand >= 0 && rules.winningSquare(board, hand) >= 0) {
+                int square = rules.winningSquare(board, hand);
+                lines.add(turn + ". piazza " + pieceName(hand) + " in " + squareName(square) + ": Quarto!");
+                return lines;
+            }
+            if (hand >= 0 && available == 0) {
+                int square = Integer.numberOfTrailingZeros(~board.getOccupied() & BitBoard.FULL_MASK);
+                lines.add(turn + ". piazza " + pieceName(hand) + " in " + squareName(square) + ": patta");
+                return lines;
+            }
+            // la mossa migliore è quella con il valore più alto per chi muove (-valore del figlio)
+            int[] best = {-1, -1, -2};
+            final int currentAvailable = available;
+            final int depthLeft = Math.max(0, splitTurns - turn + 1);
+            forEachChild(board, hand, available, (square, piece) -> {
+                if (best[2] == 1) return;
+                int value = -worker.backUp(board, piece, currentAvailable & ~(1 << piece), depthLeft - 1);
+                if (value > best[2]) {
+                    best[0] = square;
+                    best[1] = piece;
+                    best[2] = value;
+                }
+            });
+            if (best[1] < 0) {
+                // ogni pezzo fa vincere l'avversario: la partita è persa, si gioca la prima mossa
+                best[0] = Integer.numberOfTrailingZeros(~board.getOccupied() & BitBoard.FULL_MASK);
+                best[1] = Integer.numberOfTrailingZeros(available);
+            }
+            lines.add(turn + ". " + (hand >= 0 ? "piazza " + pieceName(hand) + " in " + squareName(best[0]) + ", " : "")
+                    + "dà " + pieceName(best[1]));
+            if (hand >= 0) board.place(best[0], hand);
+            hand = best[1];
+            available &= ~(1 << hand);
+            turn++;
+        }
+    }
+
+    private static String pieceName(int code) {
+        String bits = Integer.toBinaryString(code | 0x10).substring(1);
+        return "pezzo " + bits;
+    }
+
+    private static String squareName(int square) {
+        return "(" + square / 4 + "," + square % 4 + ")";
+    }
+    //endregion
+
+    // Figli di una posizione: (casella, pezzo da dare), solo pezzi che non fanno vincere subito l'avversario.
+    // Con hand = -1 (scacchiera vuota) la casella è -1. La scacchiera è modificata durante la visita e ripristinata.
+    private void forEachChild(BitBoard board, int hand, int available, ChildVisitor visitor) {
+        if (hand < 0) {
+            for (int codes = available; codes != 0; codes &= codes - 1) {
+                visitor.visit(-1, Integer.numberOfTrailingZeros(codes));
+            }
+            return;
+        }
+        for (int squares = ~board.getOccupied() & BitBoard.FULL_MASK; squares != 0; squares &= squares - 1) {
+            int square = Integer.numberOfTrailingZeros(squares);
+            board.place(square, hand);
+            int safe = available & ~rules.winningPieces(board);
+            for (int codes = safe; codes != 0; codes &= codes - 1) {
+                visitor.visit(square, Integer.numberOfTrailingZeros(codes));
+            }
+            board.remove(square);
+        }
+    }
+
+    private interface ChildVisitor {
+        void visit(int square, int piece);
+    }
+
+    // Stato di ricerca di un thread
+    private final class Worker {
+        private final BitBoard board = new BitBoard();
+        private final Canonicalizer canonicalizer = new Canonicalizer(enabledLines);
+
+        int solveUnit(long[] unit) {
+            board.clear();
+            int used = 0;
+            for (int squares = (int) (unit[2] & 0xFFFF); squares != 0; squares &= squares - 1) {
+                int square = Integer.numberOfTrailingZeros(squares);
+                int code = (int) (unit[1] >>> (square << 2)) & 0xF;
+                board.place(square, code);
+                used |= 1 << code;
+            }
+            int hand = (int) (unit[2] >>> 16 & 0xFF) - 1;
+            if (hand >= 0) used |= 1 << hand;
+            return solve(hand, ~used & 0xFFFF, -1, 1); // i pezzi non usati sono quelli ancora da dare
+        }
+
+        // Valore delle posizioni dell'albero iniziale: quelle a distanza turns vengono dai valori già risolti
+        int backUp(BitBoard position, int hand, int available, int turns) {
+            if (turns <= 0) {
+                long key = canonicalizer.canonicalize(position, hand);
+                Integer value = solved.get(key);
+                if (value != null) return value;
+                board.copyFrom(position);
+                return solve(hand, available, -1, 1);
+            }
+            if (hand >= 0 && rules.winningSquare(position, hand) >= 0) return 1;
+            if (hand >= 0 && available == 0) return 0;
+            int[] best = {-1};
+            BitBoard local = new BitBoard(position);
+            forEachChild(local, hand, available, (square, piece) -> {
+                if (best[0] == 1) return;
+                best[0] = Math.max(best[0], -backUp(local, piece, available & ~(1 << piece), turns - 1));
+            });
+            return best[0];
+        }
+
+        // Negamax esatto: 1 se chi deve piazzare hand vince, 0 patta, -1 perde (finestra alpha-beta su questi valori)
+        private int solve(int hand, int available, int alpha, int beta) {
+            if (hand < 0) {
+                int best = -1;
+                for (int codes = available; codes != 0; codes &= codes - 1) {
+                    int piece = Integer.numberOfTrailingZeros(codes);
+                    best = Math.max(best, -solve(piece, available & ~(1 << piece), -beta, -alpha));
+                    if (best >= beta) break;
+                    alpha = Math.max(alpha, best);
+                }
+                return best;
+            }
+            if (rules.winningSquare(board, hand) >= 0) return 1;
+            if (available == 0) return 0; // ultima casella, nessun Quarto
+
+            int pieces = BitBoard.SQUARES - board.getEmptyCount();
+            boolean canonical = pieces <= CANONICAL_MAX_PIECES;
+            long key = canonical ? canonicalizer.canonicalize(board, hand) : board.getHash() ^ Zobrist.hand(hand);
+            long entry = table.probe(key);
+            if (entry != 0L) {
+                int score = TranspositionTable.score(entry);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT) return score;
+                if (bound == TranspositionTable.LOWER) alpha = Math.max(alpha, score);
+                else beta = Math.min(beta, score);
+                if (alpha >= beta) return score;
+            }
+
+            int originalAlpha = alpha;
+            int best = -1; // se nessun pezzo è sicuro, chi muove perde
+            Set<Long> tried = canonical ? new HashSet<>() : null;
+            search:
+            for (int squares = ~board.getOccupied() & BitBoard.FULL_MASK; squares != 0; squares &= squares - 1) {
+                int square = Integer.numberOfTrailingZeros(squares);
+                board.place(square, hand);
+                int safe = available & ~rules.winningPieces(board);
+                for (int codes = safe; codes != 0; codes &= codes - 1) {
+                    int piece = Integer.numberOfTrailingZeros(codes);
+                    // nei primi turni si salta una mossa equivalente a una già provata
+                    if (tried != null && !tried.add(canonicalizer.canonicalize(board, piece))) continue;
+                    int score = -solve(piece, available & ~(1 << piece), -beta, -alpha);
+                    if (score > best) {
+                        best = score;
+                        if (score > alpha) {
+                            alpha = score;
+                            if (alpha >= beta) {
+                                board.remove(square);
+                                break search;
+                            }
+                        }
+                    }
+                }
+                board.remove(square);
+            }
+
+            int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                    : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, best, board.getEmptyCount(), bound, -1, -1);
+            return best;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.myquarto.tools;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.Board;
+import com.example.myquarto.VictoryCheck;
+import com.example.myquarto.ai.ParallelSearch;
+import com.example.myquarto.ai.QuartoAI;
+import com.example.myquarto.ai.TranspositionTable;
+
+import java.util.Locale;
+
+/**
+ * Strumento da riga di comando (non usato dall'app) che misura lo speedup di ParallelSearch.
+ * Risolve fino in fondo una serie fissa di posizioni con 10 caselle vuote usando 1, 2, 4, 8 e 16 thread
+ * e stampa per ogni numero di thread il tempo totale, i nodi al secondo e lo speedup rispetto a 1 thread.
+ * Ogni misura parte da una tabella delle trasposizioni vuota, così i risultati non si "aiutano" tra loro.
+ *
+ * Uso: java com.example.myquarto.tools.SearchSpeedupReport [megabyte della tabella]
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * main(String[] args)
+ */
+public final class SearchSpeedupReport {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+    private static final long TIME_LIMIT_MILLIS = 60_000L;
+
+    // Caselle 0-15 in esadecimale ('.' = vuota) e pezzo in mano, regole di default (tutto tranne i 3x3)
+    private static final String[] POSITIONS = {
+            "19.c.....b...7a. 4",
+            "..b5.7.3......c0 d",
+            "..c.901f...e.... d",
+            "8.d.2.6....0.c.. f",
+            "d1....34.2.....5 b",
+            "....91.46.5...f. 3",
+            "..70.2.e.4..6... a",
+            "..25......f..48e 1",
+    };
+
+    private SearchSpeedupReport() {
+    }
+
+    public static void main(String[] args) {
+        int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        VictoryCheck rules = new VictoryCheck(new Board(), true, true, true, true, false, true);
+
+        System.out.println("Core disponibili: " + Runtime.getRuntime().availableProcessors());
+        System.out.println("thread   tempo (ms)   nodi/s        speedup");
+        double baseline = 0;
+        for (int threads : THREAD_COUNTS) {
+            TranspositionTable table = new TranspositionTable(megabytes);
+            ParallelSearch search = new ParallelSearch(rules, BitBoard.SQUARES, threads, table);
+            long nodes = 0;
+            long start = System.nanoTime();
+            for (String position : POSITIONS) {
+                table.clear();
+                BitBoard board = new BitBoard();
+                int used = 0;
+                for (int square = 0; square < BitBoard.SQUARES; square++) {
+                    char c = position.charAt(square);
+                    if (c == '.') continue;
+                    int code = Character.digit(c, 16);
+                    board.place(square, code);
+                    used |= 1 << code;
+                }
+                int hand = Character.digit(position.charAt(BitBoard.SQUARES + 1), 16);
+                used |= 1 << hand;
+                QuartoAI.Move move = search.findMove(board, hand, ~used & 0xFFFF, TIME_LIMIT_MILLIS);
+                nodes += search.getNodeCount();
+                if (move.depth < board.getEmptyCount() && Math.abs(move.score) <= QuartoAI.WIN_SCORE - 2 * BitBoard.SQUARES) {
+                    System.out.println("  attenzione: " + position + " non risolta entro il limite di tempo");
+                }
+            }
+            double millis = (System.nanoTime() - start) / 1e6;
+            search.shutdown();
+            if (threads == 1) baseline = millis;
+            System.out.println(String.format(Locale.ROOT, "%6d   %10.0f   %11.0f   %6.2fx",
+                    threads, millis, nodes / (millis / 1000.0), baseline / millis));
+        }
+    }
+}
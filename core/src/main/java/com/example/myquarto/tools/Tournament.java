@@ -0,0 +1,413 @@
+package com.example.myquarto.tools;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.Board;
+import com.example.myquarto.GameRecord;
+import com.example.myquarto.GameRecordWriter;
+import com.example.myquarto.VictoryCheck;
+import com.example.myquarto.ai.MonteCarloAI;
+import com.example.myquarto.ai.QuartoAI;
+import com.example.myquarto.ai.QuartoEngine;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Strumento da riga di comando (non usato dall'app) che fa giocare i motori tra loro senza interfaccia.
+ * Ogni coppia di motori gioca lo stesso numero di partite per ogni combinazione delle 6 condizioni di vittoria
+ * (le stesse di StartupActivity), alternando chi sceglie il primo pezzo. Le partite girano in parallelo;
+ * ogni thread tiene le proprie istanze dei motori.
+ * Alla fine stampa Elo (stimato con il modello logistico su tutte le partite), vittorie/patte/sconfitte,
+ * partite al secondo e i percentili del tempo per mossa di ogni motore.
+ *
+ * Motori: alphabeta:<ms>[:<profondità massima>], mcts:<ms>, random (es. alphabeta:50 alphabeta:50:2 mcts:50)
+ * Uso: java com.example.myquarto.tools.Tournament [--games N] [--threads T] [--rules all|47,7,...] [--record file] motore1 motore2 ...
+ * rules: bit 0 righe, 1 colonne, 2 diagonali, 3 quadrati 2x2, 4 quadrati 3x3, 5 quadrato 4x4; all = le 63 combinazioni non vuote
+ * record: salva tutte le partite nel formato di GameRecordWriter
+ */
+
+/**
+ * I metodi presenti in questa classe sono:
+ * main(String[] args)
+ */
+public final class Tournament {
+    private final String[] engines;
+    private final int[] ruleSets;
+    private final int gamesPerPairing;
+    private final GameRecordWriter recordWriter; // null se le partite non vanno salvate
+
+    // Risultati, aggiornati solo dal thread principale quando raccoglie le partite finite
+    private final int[][] wins;   // wins[i][j] = vittorie di i contro j
+    private final int[][] draws;
+    private final long[][] moveNanos;
+    private final int[] moveCount;
+
+    private Tournament(String[] engines, int[] ruleSets, int gamesPerPairing, GameRecordWriter recordWriter) {
+        this.engines = engines;
+        this.ruleSets = ruleSets;
+        this.gamesPerPairing = gamesPerPairing;
+        this.recordWriter = recordWriter;
+        this.wins = new int[engines.length][engines.length];
+        this.draws = new int[engines.length][engines.length];
+        this.moveNanos = new long[engines.length][1024];
+        this.moveCount = new int[engines.length];
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int games = 2;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int[] ruleSets = allRuleSets();
+        File recordFile = null;
+        List<String> engines = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games":
+                    games = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--rules":
+                    ruleSets = parseRuleSets(args[++i]);
+                    break;
+                case "--record":
+                    recordFile = new File(args[++i]);
+                    break;
+                default:
+                    engines.add(args[i]);
+            }
+        }
+        if (engines.isEmpty()) {
+            engines.addAll(Arrays.asList("alphabeta:20", "mcts:20", "random"));
+        }
+        if (engines.size() < 2) {
+            throw new IllegalArgumentException("Servono almeno due motori.");
+        }
+        for (String spec : engines) {
+            createEngine(spec, new VictoryCheck(new Board(), true, true, true, true, false, true)).shutdown(); // controlla la sintassi subito
+        }
+
+        GameRecordWriter recordWriter = recordFile == null ? null : new GameRecordWriter(new FileOutputStream(recordFile));
+        try {
+            Tournament tournament = new Tournament(engines.toArray(new String[0]), ruleSets, games, recordWriter);
+            tournament.run(Math.max(1, threads));
+        } finally {
+            if (recordWriter != null) recordWriter.close();
+        }
+    }
+
+    private static int[] allRuleSets() {
+        int[] all = new int[63];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i + 1;
+        }
+        return all;
+    }
+
+    private static int[] parseRuleSets(String text) {
+        if (text.equals("all")) return allRuleSets();
+        String[] parts = text.split(",");
+        int[] result = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            result[i] = Integer.parseInt(parts[i].trim());
+            if (result[i] < 1 || result[i] > 63) {
+                throw new IllegalArgumentException("Combinazione di regole non valida: " + parts[i]);
+            }
+        }
+        return result;
+    }
+
+    private static QuartoEngine createEngine(String spec, VictoryCheck rules) {
+        String[] parts = spec.split(":");
+        switch (parts[0]) {
+            case "alphabeta":
+                return new QuartoAI(rules, parts.length > 2 ? Integer.parseInt(parts[2]) : BitBoard.SQUARES);
+            case "mcts":
+                return new MonteCarloAI(rules);
+            case "random":
+                return new RandomEngine(rules);
+            default:
+                throw new IllegalArgumentException("Motore sconosciuto: " + spec);
+        }
+    }
+
+    private static long budgetMillis(String spec) {
+        String[] parts = spec.split(":");
+        return parts.length > 1 ? Long.parseLong(parts[1]) : 0;
+    }
+
+    //region Svolgimento
+    private void run(int threads) throws InterruptedException, IOException {
+        ThreadLocal<Map<String, QuartoEngine>> threadEngines = ThreadLocal.withInitial(HashMap::new);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<GameResult>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        long seed = 1;
+        for (int flags : ruleSets) {
+            for (int a = 0; a < engines.length; a++) {
+                for (int b = a + 1; b < engines.length; b++) {
+                    for (int game = 0; game < gamesPerPairing; game++) {
+                        // partite alterne: a volte sceglie il primo pezzo a, a volte b
+                        int first = game % 2 == 0 ? a : b;
+                        int second = first == a ? b : a;
+                        long gameSeed = seed++;
+                        results.add(pool.submit(() -> playGame(threadEngines.get(), flags, first, second, gameSeed)));
+                    }
+                }
+            }
+        }
+
+        int played = 0;
+        try {
+            for (Future<GameResult> future : results) {
+                GameResult result = future.get();
+                record(result);
+                if (recordWriter != null) recordWriter.write(result.gameRecord);
+                played++;
+                if (played % 100 == 0) {
+                    System.out.println("Partite giocate: " + played + "/" + results.size());
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Errore durante una partita.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        printReport(played, seconds);
+    }
+
+    private GameResult playGame(Map<String, QuartoEngine> cache, int flags, int first, int second, long seed) {
+        VictoryCheck rules = VictoryCheck.fromFlags(new Board(), flags);
+        int[] players = {first, second};
+        QuartoEngine[] sides = new QuartoEngine[2];
+        for (int side = 0; side < 2; side++) {
+            String spec = engines[players[side]];
+            String key = spec + "@" + flags;
+            QuartoEngine engine = cache.get(key);
+            if (engine == null) {
+                engine = createEngine(spec, rules);
+                cache.put(key, engine);
+            }
+            if (engine instanceof RandomEngine) ((RandomEngine) engine).reseed(seed);
+            sides[side] = engine;
+        }
+
+        GameResult result = new GameResult(first, second);
+        result.gameRecord.setRuleFlags(flags);
+        BitBoard board = new BitBoard();
+        int hand = -1;
+        int available = 0xFFFF;
+        int side = 0; // il primo giocatore sceglie il primo pezzo
+        while (true) {
+            long before = System.nanoTime();
+            QuartoAI.Move move = sides[side].findMove(board, hand, available,
+                    Math.max(1, budgetMillis(engines[players[side]])));
+            result.addMoveTime(side, System.nanoTime() - before);
+
+            // Mosse illegali: partita persa
+            boolean legalSquare = hand < 0 ? move.square < 0 : move.square >= 0 && board.isEmpty(move.square);
+            if (!legalSquare) {
+                return result.end(1 - side, GameRecord.ENDING_FORFEIT);
+            }
+            if (hand >= 0) {
+                result.gameRecord.addMove(move.square, hand);
+                if (rules.isWinningMove(board, move.square, hand)) {
+                    return result.end(side, GameRecord.ENDING_QUARTO);
+                }
+                board.place(move.square, hand);
+            }
+            if (available == 0) {
+                return result.end(-1, GameRecord.ENDING_FULL_BOARD);
+            }
+            if (move.pieceToGive < 0 || (available & (1 << move.pieceToGive)) == 0) {
+                return result.end(1 - side, GameRecord.ENDING_FORFEIT);
+            }
+            hand = move.pieceToGive;
+            available &= ~(1 << hand);
+            side ^= 1;
+        }
+    }
+
+    private void record(GameResult result) {
+        if (result.winner < 0) {
+            draws[result.first][result.second]++;
+            draws[result.second][result.first]++;
+        } else {
+            int loser = result.winner == result.first ? result.second : result.first;
+            wins[result.winner][loser]++;
+        }
+        for (int side = 0; side < 2; side++) {
+            int engine = side == 0 ? result.first : result.second;
+            for (int i = 0; i < result.moves[side]; i++) {
+                if (moveCount[engine] == moveNanos[engine].length) {
+                    moveNanos[engine] = Arrays.copyOf(moveNanos[engine], moveCount[engine] * 2);
+                }
+                moveNanos[engine][moveCount[engine]++] = result.nanos[side][i];
+            }
+        }
+    }
+    //endregion
+
+    //region Resoconto
+    private void printReport(int played, double seconds) {
+        double[] elo = estimateElo();
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT, "%d partite in %.1f s (%.1f partite/s), %d combinazioni di regole",
+                played, seconds, played / seconds, ruleSets.length));
+        System.out.println();
+        System.out.println("motore                 Elo    vinte  patte  perse  %vinte %patte   p50 ms   p90 ms   p99 ms   max ms");
+        for (int i = 0; i < engines.length; i++) {
+            int won = 0;
+            int drawn = 0;
+            int lost = 0;
+            for (int j = 0; j < engines.length; j++) {
+                won += wins[i][j];
+                drawn += draws[i][j];
+                lost += wins[j][i];
+            }
+            int total = Math.max(1, won + drawn + lost);
+            long[] times = Arrays.copyOf(moveNanos[i], moveCount[i]);
+            Arrays.sort(times);
+            System.out.println(String.format(Locale.ROOT, "%-20s %6.0f %8d %6d %6d %6.1f%% %5.1f%% %8.2f %8.2f %8.2f %8.2f",
+                    engines[i], elo[i], won, drawn, lost, 100.0 * won / total, 100.0 * drawn / total,
+                    percentile(times, 0.50), percentile(times, 0.90), percentile(times, 0.99), percentile(times, 1.0)));
+        }
+        System.out.println();
+        System.out.println("Scontri diretti (vinte-patte-perse del motore di riga):");
+        for (int i = 0; i < engines.length; i++) {
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-20s", engines[i]));
+            for (int j = 0; j < engines.length; j++) {
+                line.append(i == j ? String.format(Locale.ROOT, "%14s", "-")
+                        : String.format(Locale.ROOT, "%14s", wins[i][j] + "-" + draws[i][j] + "-" + wins[j][i]));
+            }
+            System.out.println(line);
+        }
+    }
+
+    // Millisecondi al percentile p (p = 1: massimo)
+    private static double percentile(long[] sortedNanos, double p) {
+        if (sortedNanos.length == 0) return 0;
+        int index = (int) Math.ceil(p * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(sortedNanos.length - 1, index))] / 1e6;
+    }
+
+    // Elo di massima verosimiglianza (modello logistico, patta = mezza vittoria), media 0.
+    // Ascesa del gradiente semplice: pochi motori, converge in poche centinaia di passi.
+    private double[] estimateElo() {
+        int n = engines.length;
+        double[] rating = new double[n];
+        for (int iteration = 0; iteration < 2000; iteration++) {
+            double[] gradient = new double[n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (i == j) continue;
+                    int games = wins[i][j] + wins[j][i] + draws[i][j];
+                    if (games == 0) continue;
+                    double expected = 1.0 / (1.0 + Math.pow(10, (rating[j] - rating[i]) / 400.0));
+                    double score = wins[i][j] + 0.5 * draws[i][j];
+                    gradient[i] += score - games * expected;
+                }
+            }
+            double mean = 0;
+            for (int i = 0; i < n; i++) {
+                int games = 0;
+                for (int j = 0; j < n; j++) {
+                    if (i != j) games += wins[i][j] + wins[j][i] + draws[i][j];
+                }
+                // passo limitato: con punteggi del 100% la stima cresce senza limite
+                rating[i] = Math.max(-2000, Math.min(2000, rating[i] + 400.0 * gradient[i] / Math.max(1, games)));
+                mean += rating[i];
+            }
+            mean /= n;
+            for (int i = 0; i < n; i++) {
+                rating[i] -= mean;
+            }
+        }
+        return rating;
+    }
+    //endregion
+
+    private static final class GameResult {
+        final int first;
+        final int second;
+        int winner = -1; // indice del motore vincitore, -1 = patta
+        final int[] moves = new int[2];
+        final long[][] nanos = new long[2][BitBoard.SQUARES + 1];
+        final GameRecord gameRecord = new GameRecord();
+
+        GameResult(int first, int second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        // side 0 = chi ha scelto il primo pezzo (giocatore 1), -1 = patta
+        GameResult end(int side, int ending) {
+            winner = side < 0 ? -1 : side == 0 ? first : second;
+            gameRecord.setResult(side < 0 ? GameRecord.RESULT_DRAW
+                    : side == 0 ? GameRecord.RESULT_PLAYER1_WINS : GameRecord.RESULT_PLAYER2_WINS, ending);
+            return this;
+        }
+
+        void addMoveTime(int side, long elapsed) {
+            nanos[side][moves[side]++] = elapsed;
+        }
+    }
+
+    // Avversario di riferimento: vince se può, altrimenti casella a caso e pezzo a caso che non perde subito
+    private static final class RandomEngine implements QuartoEngine {
+        private final VictoryCheck rules;
+        private final BitBoard board = new BitBoard();
+        private Random random = new Random();
+
+        RandomEngine(VictoryCheck rules) {
+            this.rules = rules;
+        }
+
+        void reseed(long seed) {
+            random = new Random(seed);
+        }
+
+        @Override
+        public QuartoAI.Move findMove(BitBoard position, int hand, int available, long timeBudgetMillis) {
+            board.copyFrom(position);
+            int square = -1;
+            if (hand >= 0) {
+                int winning = rules.winningSquare(board, hand);
+                if (winning >= 0) return new QuartoAI.Move(winning, -1, true, QuartoAI.WIN_SCORE - 1, 0, 0);
+                int empty = ~board.getOccupied() & BitBoard.FULL_MASK;
+                square = BitBoard.nthSetBit(empty, random.nextInt(Integer.bitCount(empty)));
+                board.place(square, hand);
+            }
+            if (available == 0) return new QuartoAI.Move(square, -1, false, 0, 0, 0);
+            int safe = available & ~rules.winningPieces(board);
+            int pieces = safe != 0 ? safe : available;
+            return new QuartoAI.Move(square, BitBoard.nthSetBit(pieces, random.nextInt(Integer.bitCount(pieces))), false, 0, 0, 0);
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public void resetStop() {
+        }
+
+        @Override
+        public long getNodeCount() {
+            return 0;
+        }
+    }
+}
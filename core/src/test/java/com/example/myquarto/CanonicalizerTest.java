@@ -0,0 +1,79 @@
+package com.example.myquarto;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test locali di Canonicalizer: posizioni equivalenti devono avere la stessa forma canonica.
+ */
+public class CanonicalizerTest {
+
+    private static final int CLASSIC_LINES = WinLines.linesFor(true, true, true, false, false, false);
+
+    @Test
+    public void classicRules_have32BoardSymmetries() {
+        assertEquals(32, Canonicalizer.geometricSymmetries(CLASSIC_LINES).length);
+    }
+
+    @Test
+    public void enabling3x3Squares_changesTheGroup() {
+        int with3x3 = WinLines.linesFor(true, true, true, false, true, false);
+        assertNotEquals(Canonicalizer.geometricSymmetries(CLASSIC_LINES).length,
+                Canonicalizer.geometricSymmetries(with3x3).length);
+    }
+
+    @Test
+    public void equivalentPositions_shareTheKey() {
+        Random random = new Random(42);
+        Canonicalizer canonicalizer = new Canonicalizer(CLASSIC_LINES);
+        int[][] symmetries = Canonicalizer.geometricSymmetries(CLASSIC_LINES);
+
+        for (int i = 0; i < 200; i++) {
+            // Posizione casuale: pezzi distinti su caselle casuali, più un pezzo in mano
+            BitBoard board = new BitBoard();
+            int used = 0;
+            int pieces = random.nextInt(15);
+            for (int n = 0; n < pieces; n++) {
+                int square;
+                do { square = random.nextInt(16); } while (!board.isEmpty(square));
+                int code;
+                do { code = random.nextInt(16); } while ((used & (1 << code)) != 0);
+                used |= 1 << code;
+                board.place(square, code);
+            }
+            int hand;
+            do { hand = random.nextInt(16); } while ((used & (1 << hand)) != 0);
+
+            // Stessa posizione trasformata: simmetria della scacchiera, inversione di attributi e scambio di due attributi
+            int[] map = symmetries[random.nextInt(symmetries.length)];
+            int xor = random.nextInt(16);
+            BitBoard transformed = new BitBoard();
+            for (int square = 0; square < 16; square++) {
+                if (!board.isEmpty(square)) transformed.place(map[square], swapFirstTwoBits(board.getCode(square)) ^ xor);
+            }
+            int transformedHand = swapFirstTwoBits(hand) ^ xor;
+
+            long key = canonicalizer.canonicalize(board, hand);
+            long cells = canonicalizer.getCanonicalCells();
+            assertEquals(key, canonicalizer.canonicalize(transformed, transformedHand));
+            assertEquals(cells, canonicalizer.getCanonicalCells());
+
+            // mapSquare/mapPiece riportano la posizione trasformata sulla forma canonica
+            for (int square = 0; square < 16; square++) {
+                if (transformed.isEmpty(square)) continue;
+                int canonicalSquare = canonicalizer.mapSquare(square);
+                int canonicalCode = (int) (cells >>> (canonicalSquare << 2)) & 0xF;
+                assertEquals(canonicalCode, canonicalizer.mapPiece(transformed.getCode(square)));
+                assertEquals(square, canonicalizer.unmapSquare(canonicalSquare));
+                assertEquals(transformed.getCode(square), canonicalizer.unmapPiece(canonicalCode));
+            }
+        }
+    }
+
+    private static int swapFirstTwoBits(int code) {
+        return (code & 0b1100) | ((code & 1) << 1) | ((code >> 1) & 1);
+    }
+}
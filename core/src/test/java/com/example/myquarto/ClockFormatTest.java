@@ -0,0 +1,35 @@
+package com.example.myquarto;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test locali di ClockFormat: testo mostrato, arrotondamento per eccesso e istante del prossimo cambio.
+ */
+public class ClockFormatTest {
+
+    private static String format(long millis) {
+        char[] out = new char[ClockFormat.MAX_CHARS];
+        return new String(out, 0, ClockFormat.format(millis, out));
+    }
+
+    @Test
+    public void format_switchesToTenthsUnderTenSeconds() {
+        assertEquals("03:00", format(180_000));
+        assertEquals("03:00", format(179_001));
+        assertEquals("02:59", format(179_000));
+        assertEquals("120:00", format(7_200_000));
+        assertEquals("00:10", format(9_901));
+        assertEquals("09.9", format(9_900));
+        assertEquals("00.1", format(1));
+        assertEquals("00.0", format(0));
+
+        assertEquals(1_000, ClockFormat.millisUntilChange(180_000));
+        assertEquals(1, ClockFormat.millisUntilChange(9_901));
+        assertEquals(100, ClockFormat.millisUntilChange(9_900));
+        assertEquals(Long.MAX_VALUE, ClockFormat.millisUntilChange(0));
+        assertNotEquals(ClockFormat.displayKey(9_901), ClockFormat.displayKey(9_900));
+        assertEquals(ClockFormat.displayKey(9_850), ClockFormat.displayKey(9_801));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.myquarto;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test locali di GameClock: il tempo addebitato dipende solo dagli istanti degli eventi, non dai tick.
+ */
+public class GameClockTest {
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void fischer_chargesExactElapsedTimeAndAddsIncrement() {
+        GameClock clock = new GameClock(60_000, 2_000, GameClock.Increment.FISCHER);
+        clock.start(1_000 * MS);
+        assertEquals(59_998, clock.getRemainingMillis(1, 1_000 * MS + 1_500_000)); // 1,5 ms, arrotondato per difetto
+        assertTrue(clock.switchTurn(1_000 * MS + 12_345 * MS));
+        assertEquals(60_000 - 12_345 + 2_000, clock.getRemainingMillis(1, 20_000 * MS));
+        assertEquals(60_000, clock.getRemainingMillis(2, 1_000 * MS + 12_345 * MS));
+        clock.stop(1_000 * MS + 12_345 * MS + 700 * MS);
+        assertEquals(59_300, clock.getRemainingMillis(2, 99_999 * MS));
+    }
+
+    @Test
+    public void bronstein_refundsAtMostTheTimeUsed() {
+        GameClock clock = new GameClock(10_000, 3_000, GameClock.Increment.BRONSTEIN);
+        clock.start(0);
+        clock.switchTurn(1_000 * MS);   // 1 s usato: rimborsato tutto
+        clock.switchTurn(5_000 * MS);   // 4 s usati: rimborsati 3
+        assertEquals(10_000, clock.getRemainingMillis(1, 5_000 * MS));
+        assertEquals(9_000, clock.getRemainingMillis(2, 5_000 * MS));
+    }
+
+    @Test
+    public void moveAfterExpiry_isATimeout() {
+        GameClock clock = new GameClock(5_000, 0, GameClock.Increment.NONE);
+        clock.start(0);
+        assertFalse(clock.isExpired(4_999 * MS));
+        assertTrue(clock.isExpired(5_000 * MS));
+        assertFalse(clock.switchTurn(5_001 * MS));
+        assertTrue(clock.isPlayer1Turn());
+        assertEquals(0, clock.getRemainingMillis(1, 6_000 * MS));
+    }
+}
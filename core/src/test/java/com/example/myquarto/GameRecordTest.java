@@ -0,0 +1,95 @@
+package com.example.myquarto;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test locali del formato delle partite: andata e ritorno con GameRecordWriter e GameRecordReader.
+ */
+public class GameRecordTest {
+
+    @Test
+    public void writeThenRead_returnsTheSameGames() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GameRecordWriter writer = new GameRecordWriter(bytes)) {
+            GameRecord record = new GameRecord();
+            for (int game = 0; game < 3; game++) {
+                record.clear();
+                record.setRuleFlags(47 - game);
+                record.setClock(game * 300, game);
+                for (int move = 0; move < 5 + game * 5; move++) {
+                    record.addMove(move, 15 - move);
+                }
+                record.setResult(GameRecord.RESULT_PLAYER2_WINS, GameRecord.ENDING_QUARTO);
+                writer.write(record);
+            }
+        }
+        // 4 byte di intestazione, 6 per partita e un byte per mossa
+        assertEquals(4 + 3 * 6 + 5 + 10 + 15, bytes.size());
+
+        GameRecordReader reader = new GameRecordReader(new ByteArrayInputStream(bytes.toByteArray()));
+        GameRecord read = new GameRecord();
+        for (int game = 0; game < 3; game++) {
+            assertTrue(reader.next(read));
+            assertEquals(47 - game, read.getRuleFlags());
+            assertEquals(game * 300, read.getClockSeconds());
+            assertEquals(game, read.getIncrementSeconds());
+            assertEquals(GameRecord.RESULT_PLAYER2_WINS, read.getResult());
+            assertEquals(GameRecord.ENDING_QUARTO, read.getEnding());
+            assertEquals(5 + game * 5, read.getMoveCount());
+            for (int move = 0; move < read.getMoveCount(); move++) {
+                assertEquals(move, read.getSquare(move));
+                assertEquals(15 - move, read.getPiece(move));
+            }
+        }
+        assertFalse(reader.next(read));
+        assertEquals(3, reader.getGamesRead());
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedGame_isReported() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GameRecordWriter writer = new GameRecordWriter(bytes)) {
+            GameRecord record = new GameRecord();
+            record.addMove(0, 0);
+            record.addMove(1, 1);
+            writer.write(record);
+        }
+        byte[] truncated = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 1);
+        new GameRecordReader(new ByteArrayInputStream(truncated)).next(new GameRecord());
+    }
+
+    @Test
+    public void corruptHeader_isReportedAsIOException() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GameRecordWriter writer = new GameRecordWriter(bytes)) {
+            GameRecord record = new GameRecord();
+            writer.write(record);
+            writer.write(record);
+        }
+        byte[] corrupt = bytes.toByteArray();
+        corrupt[4 + GameRecordWriter.GAME_HEADER_BYTES + 1] = (byte) (7 << 2); // fine della partita fuori intervallo
+
+        GameRecordReader reader = new GameRecordReader(new ByteArrayInputStream(corrupt));
+        GameRecord read = new GameRecord();
+        assertTrue(reader.next(read));
+        try {
+            reader.next(read);
+            fail("Intestazione non valida accettata");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Partita 1 "));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void wrongMagic_isReportedAsIOException() throws IOException {
+        new GameRecordReader(new ByteArrayInputStream(new byte[]{'Q', 'O', 'B', '1', 0, 0}));
+    }
+}
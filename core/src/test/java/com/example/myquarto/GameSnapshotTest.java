@@ -0,0 +1,47 @@
+package com.example.myquarto;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test locali di GameSnapshot: una partita salvata e ripristinata su una Board nuova è la stessa partita.
+ */
+public class GameSnapshotTest {
+
+    @Test
+    public void snapshot_restoresBoardPiecesAndTurn() {
+        Board board = new Board();
+        int[] order = new int[16];
+        for (int i = 0; i < 16; i++) {
+            order[i] = board.getPieceInDisplayOrder(i).getCode();
+        }
+        board.assignPieceToPlayer(2, board.getAvailablePieces().get(0));
+        board.placePlayerPiece(2, 1, 2);
+        board.assignPieceToPlayer(1, board.getAvailablePieces().get(3));
+        GameSnapshot saved = new GameSnapshot(board.getBitBoard(), order, board.getAvailableMask(),
+                board.getPlayerPiece(1).getCode(), -1, 1, TurnState.Phase.PLACE_PIECE, 95_250, 170_004, true);
+        byte[] bytes = saved.toBytes();
+        assertEquals(GameSnapshot.SIZE_BYTES, bytes.length);
+
+        GameSnapshot snapshot = GameSnapshot.fromBytes(bytes);
+        Board restored = new Board();
+        restored.restore(snapshot.getPosition(), snapshot.getAvailableMask(), snapshot.getDisplayOrder(),
+                snapshot.getPlayerPiece(1), snapshot.getPlayerPiece(2));
+        TurnState turn = new TurnState();
+        turn.restore(snapshot.getCurrentPlayer(), snapshot.getPhase());
+
+        assertEquals(board.getBitBoard().getCells(), restored.getBitBoard().getCells());
+        assertEquals(board.getBitBoard().getHash(), restored.getBitBoard().getHash());
+        assertEquals(board.getPlayerPiece(1).getCode(), restored.getPlayerPiece(1).getCode());
+        assertNull(restored.getPlayerPiece(2));
+        assertEquals(board.getAvailableMask(), restored.getAvailableMask());
+        for (int i = 0; i < board.getAvailablePieces().size(); i++) {
+            assertEquals(board.getAvailablePieces().get(i).getCode(), restored.getAvailablePieces().get(i).getCode());
+        }
+        assertArrayEquals(order, snapshot.getDisplayOrder());
+        assertEquals(TurnState.Phase.PLACE_PIECE, turn.getPhase());
+        assertEquals(170_004, snapshot.getPlayer2Millis());
+        assertTrue(snapshot.isPlayer1ClockActive());
+    }
+}
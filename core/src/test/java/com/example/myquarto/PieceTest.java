@@ -0,0 +1,31 @@
+package com.example.myquarto;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test locali di Piece: le 16 pedine sono istanze uniche e il codice a 4 bit va e torna.
+ */
+public class PieceTest {
+
+    @Test
+    public void pieces_areInternedByCode() {
+        assertEquals(Piece.COUNT, Piece.all().size());
+        for (int code = 0; code < Piece.COUNT; code++) {
+            Piece piece = Piece.fromCode(code);
+            assertEquals(code, piece.getCode());
+            assertSame(piece, Piece.all().get(code));
+            assertSame(piece, Piece.of(piece.getLarghezza(), piece.getForma(), piece.getColore(), piece.getTipo()));
+        }
+    }
+
+    @Test
+    public void boardReset_reusesTheSameInstances() {
+        Board board = new Board();
+        Piece first = board.getAvailablePieces().get(0);
+        board.reset();
+        assertTrue(board.getAvailablePieces().contains(first));
+        assertSame(first, Piece.fromCode(first.getCode()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.myquarto;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test locali di TurnState: sequenza delle fasi di un turno e attesa della chiamata dopo il 16° pezzo.
+ */
+public class TurnStateTest {
+
+    @Test
+    public void turn_alternatesSelectAndPlace() {
+        TurnState turn = new TurnState();
+        turn.start();
+        assertEquals(1, turn.getCurrentPlayer());
+        assertTrue(turn.isSelectingPiecePhase());
+
+        turn.pieceGiven();
+        assertEquals(2, turn.getCurrentPlayer());
+        assertEquals(TurnState.Phase.PLACE_PIECE, turn.getPhase());
+
+        turn.piecePlaced(false);
+        assertEquals(2, turn.getCurrentPlayer());
+        assertTrue(turn.isSelectingPiecePhase());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void placingBeforeReceivingAPiece_isRejected() {
+        TurnState turn = new TurnState();
+        turn.start();
+        turn.piecePlaced(false);
+    }
+
+    @Test
+    public void fullBoard_waitsForQuartoCall() {
+        TurnState turn = new TurnState();
+        turn.start();
+        turn.pieceGiven();
+        turn.piecePlaced(true);
+        assertTrue(turn.isWaitingForQuartoCall());
+        assertTrue(turn.canCallQuarto(2));
+        assertFalse(turn.canCallQuarto(1));
+
+        assertTrue(turn.quartoCalled());
+        assertTrue(turn.isGameOver());
+        assertFalse(turn.canCallQuarto(2));
+    }
+}
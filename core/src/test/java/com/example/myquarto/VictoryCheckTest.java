@@ -0,0 +1,92 @@
+package com.example.myquarto;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test locali di VictoryCheck sulle tabelle precalcolate delle linee vincenti.
+ */
+public class VictoryCheckTest {
+
+    // Piazza sulla board i pezzi con i codici dati sulle caselle indicate
+    private static void place(Board board, int[] codes, int[][] cells) {
+        for (int i = 0; i < codes.length; i++) {
+            Piece piece = findPiece(board.getAvailablePieces(), codes[i]);
+            assertTrue(board.assignPieceToPlayer(1, piece));
+            assertTrue(board.placePlayerPiece(1, cells[i][0], cells[i][1]));
+        }
+    }
+
+    private static Piece findPiece(List<Piece> pieces, int code) {
+        for (Piece piece : pieces) {
+            if (piece.getCode() == code) return piece;
+        }
+        return null;
+    }
+
+    @Test
+    public void emptyBoard_noVictory() {
+        Board board = new Board();
+        VictoryCheck check = new VictoryCheck(board, true, true, true, true, true, true);
+        VictoryCheck.VictoryResult result = check.checkWin();
+        assertSame(VictoryCheck.NO_VICTORY, result);
+        assertEquals(VictoryCheck.VictoryType.NONE, result.type);
+    }
+
+    @Test
+    public void rowOfSameWidth_isReportedAsRow() {
+        Board board = new Board();
+        // Codici pari = pezzi LARGO: quattro pezzi larghi con tutti gli altri attributi diversi tra loro
+        place(board, new int[]{0b0000, 0b0110, 0b1010, 0b1100}, new int[][]{{2, 0}, {2, 1}, {2, 2}, {2, 3}});
+
+        VictoryCheck.VictoryResult result = new VictoryCheck(board, true, false, false, false, false, false).checkWin();
+        assertEquals(VictoryCheck.VictoryType.LARGHEZZA, result.type);
+        assertEquals(VictoryCheck.WinPosition.ROW, result.position);
+        assertEquals(2, result.index);
+
+        // Con le righe disabilitate la stessa posizione non è un Quarto
+        assertSame(VictoryCheck.NO_VICTORY, new VictoryCheck(board, false, true, true, true, true, true).checkWin());
+    }
+
+    @Test
+    public void square3x3_indexEncodesTopLeftCorner() {
+        Board board = new Board();
+        // Quattro pezzi VUOTO (bit 3) con larghezza, forma e colore misti
+        place(board, new int[]{0b1000, 0b1011, 0b1101, 0b1110}, new int[][]{{1, 1}, {1, 3}, {3, 1}, {3, 3}});
+
+        VictoryCheck.VictoryResult result = new VictoryCheck(board, true, true, true, true, true, true).checkWin();
+        assertEquals(VictoryCheck.VictoryType.TIPO, result.type);
+        assertEquals(VictoryCheck.WinPosition.SQUARE_3x3, result.position);
+        assertEquals(11, result.index);
+        assertSame(VictoryCheck.NO_VICTORY, new VictoryCheck(board, true, true, true, true, false, true).checkWin());
+    }
+
+    @Test
+    public void isWinningMove_usesOnlyLinesThroughTheSquare() {
+        Board board = new Board();
+        place(board, new int[]{0b0000, 0b0110, 0b1010}, new int[][]{{0, 0}, {0, 1}, {0, 2}});
+        VictoryCheck check = new VictoryCheck(board, true, true, true, true, false, true);
+
+        Piece largo = findPiece(board.getAvailablePieces(), 0b1100);
+        Piece stretto = findPiece(board.getAvailablePieces(), 0b1101);
+        assertTrue(check.isWinningMove(0, 3, largo));
+        assertFalse(check.isWinningMove(0, 3, stretto));
+        assertFalse(check.isWinningMove(1, 3, largo));
+        assertFalse(check.isWinningMove(0, 0, largo)); // casella già occupata
+
+        assertTrue(board.assignPieceToPlayer(2, largo));
+        assertTrue(board.placePlayerPiece(2, 0, 3));
+        assertEquals(VictoryCheck.WinPosition.ROW, check.checkWin().position);
+    }
+
+    @Test
+    public void everyLineHasFourDistinctSquares() {
+        for (int line = 0; line < WinLines.COUNT; line++) {
+            assertEquals(4, Integer.bitCount(WinLines.MASKS[line]));
+        }
+        assertEquals((1 << WinLines.COUNT) - 1, WinLines.linesFor(true, true, true, true, true, true));
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.myquarto.ai;
+
+import com.example.myquarto.BitBoard;
+
+import org.junit.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test locali di EngineExecutor: un Task annullato ferma il motore e non consegna il risultato,
+ * il Task successivo sullo stesso motore non viene fermato dallo stop() del precedente,
+ * uno stop() arrivato prima che il motore inizi a cercare non va perso, gli errori arrivano a failure.
+ */
+public class EngineExecutorTest {
+
+    // Motore finto: cerca finché non viene fermato, oppure per timeBudgetMillis
+    private static final class SpinningEngine implements QuartoEngine {
+        final CountDownLatch started = new CountDownLatch(1);
+        private volatile boolean stopRequested;
+
+        @Override
+        public QuartoAI.Move findMove(BitBoard position, int hand, int available, long timeBudgetMillis) {
+            started.countDown();
+            long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+            while (!stopRequested && System.nanoTime() < deadline) {
+                Thread.yield();
+            }
+            return new QuartoAI.Move(0, 1, false, stopRequested ? -1 : 1, 1, 0);
+        }
+
+        @Override
+        public void stop() {
+            stopRequested = true;
+        }
+
+        @Override
+        public void resetStop() {
+            stopRequested = false;
+        }
+
+        @Override
+        public long getNodeCount() {
+            return 0;
+        }
+    }
+
+    @Test
+    public void cancel_stopsTheEngineAndDropsTheResult() throws InterruptedException {
+        BlockingQueue<Runnable> mainThread = new LinkedBlockingQueue<>();
+        EngineExecutor executor = new EngineExecutor(2, 4, mainThread::add);
+        SpinningEngine engine = new SpinningEngine();
+        BlockingQueue<Integer> results = new LinkedBlockingQueue<>();
+        try {
+            EngineExecutor.Task<QuartoAI.Move> abandoned = executor.submit(engine,
+                    () -> engine.findMove(new BitBoard(), -1, 0xFFFF, 60_000), move -> results.add(move.score), null);
+            assertTrue(engine.started.await(5, TimeUnit.SECONDS));
+            abandoned.cancel();
+            EngineExecutor.Task<QuartoAI.Move> next = executor.submit(engine,
+                    () -> engine.findMove(new BitBoard(), -1, 0xFFFF, 50), move -> results.add(move.score), null);
+
+            // Il primo Task si ferma subito, il secondo arriva alla fine del suo tempo senza essere fermato
+            Runnable delivery = mainThread.poll(5, TimeUnit.SECONDS);
+            assertNotNull(delivery);
+            delivery.run();
+            assertEquals(Integer.valueOf(1), results.poll());
+            assertTrue(abandoned.isCancelled());
+            assertTrue(next.isDone());
+            assertNull(mainThread.poll(100, TimeUnit.MILLISECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void cancel_beforeTheEngineStartsSearching_isNotLost() throws InterruptedException {
+        EngineExecutor executor = new EngineExecutor(1, 4, Runnable::run);
+        SpinningEngine engine = new SpinningEngine();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        BlockingQueue<Integer> scores = new LinkedBlockingQueue<>();
+        try {
+            // Il Task è già RUNNING ma il motore non ha ancora iniziato: lo stop() deve restare valido
+            EngineExecutor.Task<QuartoAI.Move> task = executor.submit(engine, () -> {
+                running.countDown();
+                cancelled.await();
+                QuartoAI.Move move = engine.findMove(new BitBoard(), -1, 0xFFFF, 60_000);
+                scores.add(move.score);
+                return move;
+            }, move -> fail("Risultato consegnato dopo cancel()"), null);
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            task.cancel();
+            cancelled.countDown();
+            assertEquals(Integer.valueOf(-1), scores.poll(5, TimeUnit.SECONDS));
+            assertTrue(task.isCancelled());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void failures_reachTheFailureCallbackInsteadOfThrowing() throws InterruptedException {
+        BlockingQueue<Runnable> mainThread = new LinkedBlockingQueue<>();
+        EngineExecutor executor = new EngineExecutor(1, 1, mainThread::add);
+        BlockingQueue<Exception> failures = new LinkedBlockingQueue<>();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.submit(null, () -> {
+                release.await();
+                throw new IllegalStateException("motore rotto");
+            }, result -> fail("Nessun risultato atteso"), failures::add);
+            executor.submit(null, () -> 0, result -> { }, failures::add); // occupa l'unico posto in coda
+            executor.submit(null, () -> 0, result -> fail("Il Task rifiutato non parte"), failures::add);
+
+            mainThread.take().run();
+            assertTrue(failures.poll() instanceof RejectedExecutionException);
+            release.countDown();
+            mainThread.poll(5, TimeUnit.SECONDS).run();
+            assertEquals("motore rotto", failures.poll().getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.myquarto.ai;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.Board;
+import com.example.myquarto.VictoryCheck;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test locali di MonteCarloAI: vittoria immediata, nessun pezzo vincente regalato se ce n'è uno sicuro,
+ * limite di simulazioni rispettato anche con più thread.
+ */
+public class MonteCarloAITest {
+    private final VictoryCheck rules = new VictoryCheck(new Board(), true, true, true, true, false, true);
+
+    @Test
+    public void findMove_takesAnImmediateWin() {
+        BitBoard position = new BitBoard();
+        position.place(0, 0);
+        position.place(1, 1);
+        position.place(2, 2);
+        MonteCarloAI engine = new MonteCarloAI(rules);
+        QuartoAI.Move move = engine.findMove(position, 3, BitBoard.FULL_MASK & ~0xF, 1_000);
+        assertTrue(move.wins);
+        assertEquals(3, move.square);
+        assertEquals(-1, move.pieceToGive);
+        engine.shutdown();
+    }
+
+    @Test
+    public void findMove_neverGivesAWinningPieceWhenASafeOneExists() {
+        MonteCarloAI engine = new MonteCarloAI(rules, 2, MonteCarloAI.DEFAULT_EXPLORATION, 2_000, 1 << 14);
+        Random random = new Random(3);
+        try {
+            for (int game = 0; game < 20; game++) {
+                BitBoard position = new BitBoard();
+                int hand = random.nextInt(BitBoard.SQUARES);
+                int available = BitBoard.FULL_MASK & ~(1 << hand);
+                int placed = 4 + random.nextInt(6);
+                while (BitBoard.SQUARES - position.getEmptyCount() < placed) {
+                    int square = random.nextInt(BitBoard.SQUARES);
+                    if ((position.getOccupied() & (1 << square)) != 0 || rules.isWinningMove(position, square, hand)) continue;
+                    position.place(square, hand);
+                    hand = BitBoard.nthSetBit(available, random.nextInt(Integer.bitCount(available)));
+                    available &= ~(1 << hand);
+                }
+                if (rules.winningSquare(position, hand) >= 0) continue;
+
+                QuartoAI.Move move = engine.findMove(position, hand, available, 60_000);
+                assertFalse(move.wins);
+                position.place(move.square, hand);
+                int safe = available & ~rules.winningPieces(position);
+                assertTrue((available & (1 << move.pieceToGive)) != 0);
+                if (safe != 0) assertTrue((safe & (1 << move.pieceToGive)) != 0);
+            }
+        } finally {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    public void maxPlayouts_isSharedAcrossThreads() {
+        MonteCarloAI engine = new MonteCarloAI(rules, 3, MonteCarloAI.DEFAULT_EXPLORATION, 1_000, 1 << 14);
+        try {
+            BitBoard position = new BitBoard();
+            position.place(5, 0);
+            for (int search = 0; search < 2; search++) {
+                engine.findMove(position, 9, BitBoard.FULL_MASK & ~(1 << 0 | 1 << 9), 60_000);
+                assertEquals(1_000, engine.getNodeCount());
+            }
+        } finally {
+            engine.shutdown();
+        }
+    }
+}
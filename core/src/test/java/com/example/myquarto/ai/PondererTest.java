@@ -0,0 +1,125 @@
+package com.example.myquarto.ai;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.Board;
+import com.example.myquarto.VictoryCheck;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test locali di Ponderer: le risposte cercate si ritrovano con getReply, finishCurrent() lascia finire solo
+ * la ricerca in corso, stop() non pubblica la risposta interrotta.
+ */
+public class PondererTest {
+    private static final int EXPECTED_PIECE = 5;
+
+    private final VictoryCheck rules = new VictoryCheck(new Board(), true, true, true, true, false, true);
+    private final BitBoard position = new BitBoard(); // scacchiera vuota: nessun pezzo fa vincere subito
+
+    // Motore finto: la risposta a hand è la casella hand; con blockOn la ricerca di quel pezzo attende release
+    private static final class FakeEngine implements QuartoEngine {
+        final List<Integer> searched = new CopyOnWriteArrayList<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        private final int blockOn;
+
+        FakeEngine(int blockOn) {
+            this.blockOn = blockOn;
+        }
+
+        @Override
+        public QuartoAI.Move findMove(BitBoard position, int hand, int available, long timeBudgetMillis) {
+            searched.add(hand);
+            if (hand == blockOn) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new QuartoAI.Move(hand, Integer.numberOfTrailingZeros(available), false, 0, 1, 0);
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public void resetStop() {
+        }
+
+        @Override
+        public long getNodeCount() {
+            return 0;
+        }
+    }
+
+    @Test
+    public void ponderHandOff_publishesAReplyForEveryPiece() {
+        FakeEngine engine = new FakeEngine(-1);
+        Ponderer ponderer = new Ponderer(engine, rules);
+        ponderer.ponderHandOff(position, BitBoard.FULL_MASK, EXPECTED_PIECE, 10);
+
+        assertEquals(Integer.valueOf(EXPECTED_PIECE), engine.searched.get(0));
+        assertEquals(BitBoard.SQUARES, engine.searched.size());
+        for (int hand = 0; hand < BitBoard.SQUARES; hand++) {
+            assertEquals(hand, ponderer.getReply(position, hand).square);
+        }
+        BitBoard other = new BitBoard();
+        other.place(0, 0);
+        assertNull(ponderer.getReply(other, EXPECTED_PIECE));
+    }
+
+    @Test
+    public void finishCurrent_completesOnlyTheSearchInProgress() throws InterruptedException {
+        FakeEngine engine = new FakeEngine(EXPECTED_PIECE);
+        Ponderer ponderer = new Ponderer(engine, rules);
+        Thread worker = ponderInBackground(ponderer);
+        assertTrue(engine.entered.await(5, TimeUnit.SECONDS));
+
+        assertTrue(ponderer.isSearching(position, EXPECTED_PIECE));
+        assertFalse(ponderer.isSearching(position, 0));
+        assertNull(ponderer.getReply(position, EXPECTED_PIECE));
+        ponderer.finishCurrent();
+        engine.release.countDown();
+        worker.join(5_000);
+
+        assertFalse(worker.isAlive());
+        assertEquals(EXPECTED_PIECE, ponderer.getReply(position, EXPECTED_PIECE).square);
+        assertEquals(Arrays.asList(EXPECTED_PIECE), engine.searched);
+        assertNull(ponderer.getReply(position, 0));
+    }
+
+    @Test
+    public void stop_dropsTheInterruptedReply() throws InterruptedException {
+        FakeEngine engine = new FakeEngine(0); // il secondo pezzo cercato, dopo quello previsto
+        Ponderer ponderer = new Ponderer(engine, rules);
+        Thread worker = ponderInBackground(ponderer);
+        assertTrue(engine.entered.await(5, TimeUnit.SECONDS));
+
+        ponderer.stop();
+        engine.release.countDown();
+        worker.join(5_000);
+
+        assertFalse(worker.isAlive());
+        assertNotNull(ponderer.getReply(position, EXPECTED_PIECE));
+        assertNull(ponderer.getReply(position, 0));
+        assertEquals(Arrays.asList(EXPECTED_PIECE, 0), engine.searched);
+        assertFalse(ponderer.isSearching(position, 0));
+    }
+
+    private Thread ponderInBackground(Ponderer ponderer) {
+        Thread worker = new Thread(() -> ponderer.ponderHandOff(position, BitBoard.FULL_MASK, EXPECTED_PIECE, 10));
+        worker.start();
+        return worker;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.myquarto.ai;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.Board;
+import com.example.myquarto.VictoryCheck;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test locali dell'analisi di QuartoAI: i punteggi per casella e per pezzo sono coerenti con findMove.
+ */
+public class QuartoAITest {
+
+    @Test
+    public void analyze_agreesWithFindMoveAndStreamsEveryDepth() {
+        VictoryCheck rules = new VictoryCheck(new Board(), true, true, true, true, false, true);
+        BitBoard position = new BitBoard();
+        int[][] moves = {{0, 0}, {5, 3}, {10, 12}, {15, 6}, {3, 9}, {6, 10}, {9, 5}, {12, 15}};
+        int available = BitBoard.FULL_MASK;
+        for (int[] move : moves) {
+            assertFalse(rules.isWinningMove(position, move[0], move[1]));
+            position.place(move[0], move[1]);
+            available &= ~(1 << move[1]);
+        }
+        int hand = Integer.numberOfTrailingZeros(available);
+        available &= ~(1 << hand);
+
+        List<Integer> depths = new ArrayList<>();
+        int[] squareScores = new QuartoAI(rules, 16).analyze(position, hand, available, 60_000,
+                (depth, scores, complete) -> depths.add(depth));
+        QuartoAI.Move best = new QuartoAI(rules, 16).findMove(position, hand, available, 60_000);
+
+        int bestScore = QuartoAI.NO_SCORE;
+        for (int square = 0; square < BitBoard.SQUARES; square++) {
+            boolean occupied = (position.getOccupied() & (1 << square)) != 0;
+            assertEquals(occupied, squareScores[square] == QuartoAI.NO_SCORE);
+            bestScore = Math.max(bestScore, squareScores[square]);
+        }
+        assertEquals(best.score, bestScore);
+        assertEquals(best.score, squareScores[best.square]);
+        assertEquals(Integer.valueOf(1), depths.get(0));
+
+        // Dare hand all'avversario vale l'opposto del suo miglior piazzamento
+        int[] pieceScores = new QuartoAI(rules, 16).analyze(position, -1, available | (1 << hand), 60_000,
+                (depth, scores, complete) -> { });
+        assertEquals(-bestScore, pieceScores[hand]);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.myquarto.ai;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test locali di TranspositionTable: andata e ritorno dei campi impacchettati, sostituzione depth-preferred,
+ * chiavi diverse sullo stesso slot.
+ */
+public class TranspositionTableTest {
+    private static final long KEY = 0x123456789ABCDEF0L;
+
+    @Test
+    public void storeThenProbe_returnsEveryField() {
+        TranspositionTable table = new TranspositionTable(1);
+        for (int i = 0; i < 255; i++) {
+            table.newSearch(); // età massima
+        }
+        table.store(KEY, -QuartoAI.WIN_SCORE + 3, 255, TranspositionTable.UPPER, 15, 15);
+        long entry = table.probe(KEY);
+        assertEquals(-QuartoAI.WIN_SCORE + 3, TranspositionTable.score(entry));
+        assertEquals(255, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.UPPER, TranspositionTable.bound(entry));
+        assertEquals(15, TranspositionTable.bestSquare(entry));
+        assertEquals(15, TranspositionTable.bestPiece(entry));
+        assertEquals(255, TranspositionTable.age(entry));
+
+        table.newSearch(); // l'età ricomincia da 0
+        table.store(KEY, 32767, 0, TranspositionTable.EXACT, -1, -1);
+        entry = table.probe(KEY);
+        assertEquals(32767, TranspositionTable.score(entry));
+        assertEquals(0, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.EXACT, TranspositionTable.bound(entry));
+        assertEquals(-1, TranspositionTable.bestSquare(entry));
+        assertEquals(-1, TranspositionTable.bestPiece(entry));
+        assertEquals(0, TranspositionTable.age(entry));
+
+        table.store(KEY, -32768, 1, TranspositionTable.LOWER, 0, 0);
+        assertEquals(-32768, TranspositionTable.score(table.probe(KEY)));
+    }
+
+    @Test
+    public void store_prefersDeeperEntriesOfTheCurrentSearch() {
+        TranspositionTable table = new TranspositionTable(1);
+        long other = KEY + table.capacity(); // stesso slot, chiave diversa
+        table.newSearch();
+        table.store(KEY, 10, 8, TranspositionTable.EXACT, 1, 2);
+
+        table.store(other, 20, 3, TranspositionTable.EXACT, 3, 4);
+        assertEquals(0L, table.probe(other));
+        assertEquals(10, TranspositionTable.score(table.probe(KEY)));
+
+        table.store(KEY, 11, 2, TranspositionTable.LOWER, 1, 2); // la stessa posizione si aggiorna sempre
+        assertEquals(11, TranspositionTable.score(table.probe(KEY)));
+
+        table.store(other, 21, 5, TranspositionTable.EXACT, 3, 4);
+        assertEquals(21, TranspositionTable.score(table.probe(other)));
+        assertEquals(0L, table.probe(KEY));
+
+        table.newSearch(); // le voci della ricerca precedente sono sostituibili anche da voci meno profonde
+        table.store(KEY, 12, 1, TranspositionTable.EXACT, 1, 2);
+        assertEquals(12, TranspositionTable.score(table.probe(KEY)));
+        assertEquals(0L, table.probe(other));
+    }
+
+    @Test
+    public void probe_missesOnADifferentKeyInTheSameSlot() {
+        TranspositionTable table = new TranspositionTable(1);
+        table.store(KEY, 5, 4, TranspositionTable.EXACT, 6, 7);
+        assertEquals(0L, table.probe(KEY ^ 1L << 50));
+        assertEquals(0L, table.probe(KEY + table.capacity()));
+        assertNotEquals(0L, table.probe(KEY));
+
+        table.clear();
+        assertEquals(0L, table.probe(KEY));
+    }
+}
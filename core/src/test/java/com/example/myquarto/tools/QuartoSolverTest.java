@@ -0,0 +1,88 @@
+package com.example.myquarto.tools;
+
+import com.example.myquarto.BitBoard;
+import com.example.myquarto.Board;
+import com.example.myquarto.VictoryCheck;
+import com.example.myquarto.ai.QuartoAI;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test locali di QuartoSolver: il valore di posizioni con poche caselle libere coincide con QuartoAI a profondità
+ * piena, e un checkpoint con un'ultima voce scritta a metà viene tagliato prima di riprendere.
+ */
+public class QuartoSolverTest {
+    private static final int RULES = 47;
+    private static final int EMPTY_SQUARES = 8;
+
+    @Test
+    public void solveRoot_agreesWithFullDepthSearch() throws IOException, InterruptedException {
+        VictoryCheck rules = new VictoryCheck(new Board(), true, true, true, true, false, true);
+        Random random = new Random(7);
+        for (int game = 0; game < 3; game++) {
+            BitBoard position = new BitBoard();
+            int[] handAndAvailable = randomPosition(rules, random, position);
+            int hand = handAndAvailable[0];
+            int available = handAndAvailable[1];
+
+            int value = new QuartoSolver(RULES, 16).solveRoot(position, hand, available, 2, 2, null);
+            QuartoAI.Move move = new QuartoAI(rules, BitBoard.SQUARES).findMove(position, hand, available, 60_000);
+            assertEquals(Integer.signum(move.score), value);
+        }
+    }
+
+    @Test
+    public void tornCheckpoint_isTruncatedBeforeResuming() throws IOException, InterruptedException {
+        VictoryCheck rules = new VictoryCheck(new Board(), true, true, true, true, false, true);
+        BitBoard position = new BitBoard();
+        int[] handAndAvailable = randomPosition(rules, new Random(11), position);
+        File checkpoint = File.createTempFile("quarto-solver", ".ckp");
+        try {
+            int value = new QuartoSolver(RULES, 16).solveRoot(position, handAndAvailable[0], handAndAvailable[1], 2, 1, checkpoint);
+            long complete = checkpoint.length();
+            assertEquals(0, (complete - 8) % 9);
+
+            // Interruzione a metà di una voce: i byte in più vengono tagliati, le voci lette restano valide
+            try (FileOutputStream out = new FileOutputStream(checkpoint, true)) {
+                out.write(new byte[]{1, 2, 3, 4, 5});
+            }
+            assertEquals(value, new QuartoSolver(RULES, 16).solveRoot(position, handAndAvailable[0], handAndAvailable[1], 2, 1, checkpoint));
+            assertEquals(complete, checkpoint.length());
+
+            // Interruzione subito dopo MAGIC: l'intestazione viene riscritta per intero
+            try (FileOutputStream out = new FileOutputStream(checkpoint)) {
+                out.write(new byte[]{0x51, 0x53, 0x4C, 0x56});
+            }
+            assertEquals(value, new QuartoSolver(RULES, 16).solveRoot(position, handAndAvailable[0], handAndAvailable[1], 2, 1, checkpoint));
+            assertEquals(complete, checkpoint.length());
+        } finally {
+            assertTrue(checkpoint.delete());
+        }
+    }
+
+    // Partita a caso fino a EMPTY_SQUARES caselle libere, senza Quarto; restituisce {pezzo in mano, disponibili}
+    private static int[] randomPosition(VictoryCheck rules, Random random, BitBoard position) {
+        int available = BitBoard.FULL_MASK;
+        int hand = random.nextInt(BitBoard.SQUARES);
+        available &= ~(1 << hand);
+        while (position.getEmptyCount() > EMPTY_SQUARES) {
+            int square = random.nextInt(BitBoard.SQUARES);
+            if ((position.getOccupied() & (1 << square)) != 0 || rules.isWinningMove(position, square, hand)) continue;
+            position.place(square, hand);
+            int safe = available & ~rules.winningPieces(position);
+            int pieces = safe != 0 ? safe : available;
+            int skip = random.nextInt(Integer.bitCount(pieces));
+            for (int i = 0; i < skip; i++) pieces &= pieces - 1;
+            hand = Integer.numberOfTrailingZeros(pieces);
+            available &= ~(1 << hand);
+        }
+        return new int[]{hand, available};
+    }
+}
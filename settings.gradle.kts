@@ -15,4 +15,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "MyQuarto"
 include(":app")
+include(":core")
+include(":benchmarks")
  
\ No newline at end of file